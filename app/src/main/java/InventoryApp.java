@@ -0,0 +1,912 @@
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.Timeline;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.css.PseudoClass;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import inventory.ChangeBatcher;
+import inventory.CsvExporter;
+import inventory.CsvImporter;
+import inventory.Dictionary;
+import inventory.ExpiryNotifier;
+import inventory.ExpirySettings;
+import inventory.ExpiryStatus;
+import inventory.FilterPipeline;
+import inventory.InventoryChange;
+import inventory.InventoryClock;
+import inventory.InventoryManager;
+import inventory.InventoryStore;
+import inventory.Item;
+import inventory.LatencyTimer;
+import inventory.Metrics;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.FutureTask;
+import java.util.prefs.Preferences;
+
+public class InventoryApp extends Application {
+
+    // Row states styled by the stylesheet in start()
+    private static final PseudoClass EXPIRED = PseudoClass.getPseudoClass("expired");
+    private static final PseudoClass EXPIRING = PseudoClass.getPseudoClass("expiring");
+    private static final PseudoClass HAS_ITEMS = PseudoClass.getPseudoClass("has-items");
+    private static final PseudoClass OTHER_MONTH = PseudoClass.getPseudoClass("other-month");
+    private static final String[] STATUS_EMOJI = { "✅ ", "⚠️ ", "❌ " }; // by ExpiryStatus ordinal
+    // Calendar View cells: a day's colour is the status of what expires on it, as for table rows
+    private static final String CALENDAR_CSS = "data:text/css," +
+            ".calendar-month { -fx-font-size: 16px; -fx-font-weight: bold; }" +
+            ".calendar-day { -fx-background-color: #f4f4f4; -fx-text-fill: black; }" +
+            ".calendar-day:has-items { -fx-background-color: #d6f5d6; }" +
+            ".calendar-day:has-items:expiring { -fx-background-color: #ffe0b3; }" +
+            ".calendar-day:has-items:expired { -fx-background-color: #ffcccc; }" +
+            ".calendar-day:other-month { -fx-text-fill: #999999; }";
+
+    // UI-side timers (see Metrics); the manager, CSV and store paths time themselves
+    private static final LatencyTimer REFRESH_TIMER = Metrics.timer("ui.refresh");
+    private static final LatencyTimer CHANGES_TIMER = Metrics.timer("ui.applyChanges");
+    private static final LatencyTimer IMPORT_TIMER = Metrics.timer("ui.import");
+    private static final LatencyTimer EXPIRY_CHECK_TIMER = Metrics.timer("ui.expiryCheck");
+    private static final LatencyTimer DASHBOARD_TIMER = Metrics.timer("ui.dashboard");
+    private static final LatencyTimer CALENDAR_TIMER = Metrics.timer("ui.calendar");
+    private static final long METRICS_PERIOD_SECONDS = Long.getLong("inventory.metrics.period", 0); // 0: no metrics.csv
+
+    // Expiry alert settings survive restarts here; core only holds the window in memory (ExpirySettings)
+    private static final Preferences PREFS = Preferences.userRoot().node("home-inventory/expiry");
+
+    private InventoryManager manager = new InventoryManager();
+    private TableView<Item> table = new TableView<>();
+    private ObservableList<Item> tableData = FXCollections.observableArrayList();
+    private TextField searchField;
+    private ComboBox<String> categoryFilter;
+    private boolean autoNotify = PREFS.getBoolean("autoNotify", true);
+
+    // Keystrokes are debounced; other refreshes apply immediately
+    private static final long SEARCH_DEBOUNCE_MS = 150;
+    // Rows merged per FX-thread step of an import
+    private static final int IMPORT_MERGE_CHUNK = 2000;
+    private FilterPipeline filterPipeline = new FilterPipeline(manager, this::applyFilterResult,
+            Platform::runLater);
+    private long filterDueNanos;
+    private InventoryStore store = new InventoryStore(InventoryStore.defaultDirectory());
+    private ExpiryNotifier expiryNotifier = new ExpiryNotifier(manager, this::showTransitionAlert,
+            Platform::runLater);
+
+    @Override
+    public void start(Stage primaryStage) {
+        primaryStage.setTitle("Inventory Manager");
+        ExpirySettings.setWarningDays(Math.max(1, PREFS.getInt("warningDays", ExpirySettings.DEFAULT_WARNING_DAYS)));
+
+        // ===== Navbar =====
+        HBox navbar = new HBox();
+        navbar.setStyle("-fx-background-color: #232f3e; -fx-padding: 10px;");
+        navbar.setAlignment(Pos.CENTER_LEFT);
+        navbar.setSpacing(20);
+
+        Button menuBtn = new Button("☰");
+        menuBtn.getStyleClass().add("menu-button");
+
+        Label title = new Label("Inventory Manager");
+        title.setStyle("-fx-text-fill: white; -fx-font-size: 18px; -fx-font-weight: bold;");
+
+        searchField = new TextField();
+        searchField.setPromptText("Search...");
+        searchField.textProperty().addListener((obs, old, val) -> requestFilter(SEARCH_DEBOUNCE_MS));
+
+        categoryFilter = new ComboBox<>();
+        categoryFilter.getItems().add("All");
+        categoryFilter.getItems().addAll(Dictionary.CATEGORIES.values());
+        categoryFilter.setValue("All");
+        categoryFilter.setOnAction(e -> refreshTable());
+
+        navbar.getChildren().addAll(menuBtn, title, searchField, categoryFilter);
+
+        // ===== Side menu =====
+        VBox sideMenu = new VBox(10);
+        sideMenu.setPadding(new Insets(10));
+        sideMenu.setStyle("-fx-background-color: #37475a; -fx-pref-width: 0;");
+        sideMenu.setMinWidth(0);
+
+        Button addBtn = new Button("➕ Add Item");
+        Button editBtn = new Button("✏️ Edit Item");
+        Button removeBtn = new Button("🗑 Remove Item");
+        Button useBtn = new Button("🍽 Use Item");
+        Button purgeBtn = new Button("🧹 Purge Expired");
+        Button exportBtn = new Button("📤 Export CSV");
+        Button importBtn = new Button("📥 Import CSV");
+        Button expiringBtn = new Button("⚠️ Expiring Soon");
+        Button dashboardBtn = new Button("📊 Dashboard");
+        Button calendarBtn = new Button("📅 Calendar View");
+        CheckBox autoNotifyCheck = new CheckBox("🔔 Auto Notifications");
+        autoNotifyCheck.setSelected(autoNotify);
+        autoNotifyCheck.setStyle("-fx-text-fill: white; -fx-font-weight: bold;");
+
+        Label warnLabel = new Label("⏰ Warn days ahead");
+        warnLabel.setStyle("-fx-text-fill: white; -fx-font-weight: bold;");
+        Spinner<Integer> warnDays = new Spinner<>(1, 60, ExpirySettings.getWarningDays());
+        warnDays.setPrefWidth(80);
+
+        sideMenu.getChildren().addAll(addBtn, editBtn, removeBtn, useBtn, purgeBtn, exportBtn, importBtn, expiringBtn, dashboardBtn,
+                calendarBtn, autoNotifyCheck, warnLabel, warnDays);
+
+        // ===== Table =====
+        TableColumn<Item, String> nameCol = new TableColumn<>("Name");
+        nameCol.setCellValueFactory(c -> new SimpleStringProperty(
+                STATUS_EMOJI[c.getValue().getStatus().ordinal()] + c.getValue().getName()));
+
+        TableColumn<Item, String> catCol = new TableColumn<>("Category");
+        catCol.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getCategory()));
+
+        TableColumn<Item, String> qtyCol = new TableColumn<>("Quantity");
+        qtyCol.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getDisplayQuantity()));
+
+        TableColumn<Item, LocalDate> expCol = new TableColumn<>("Expiry Date");
+        expCol.setCellValueFactory(c -> new SimpleObjectProperty<>(c.getValue().getExpiryDate()));
+
+        table.getColumns().addAll(nameCol, catCol, qtyCol, expCol);
+        table.setItems(tableData);
+        table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+
+        // ===== Row highlighting =====
+        // Status is a pseudo-class and selection uses the built-in :selected, so an
+        // update flips two bits instead of re-parsing an inline style per row and cell.
+        table.setRowFactory(tv -> new TableRow<Item>() {
+            @Override
+            protected void updateItem(Item item, boolean empty) {
+                super.updateItem(item, empty);
+                ExpiryStatus status = item == null || empty ? null : item.getStatus();
+                pseudoClassStateChanged(EXPIRED, status == ExpiryStatus.EXPIRED);
+                pseudoClassStateChanged(EXPIRING, status == ExpiryStatus.EXPIRING);
+            }
+        });
+
+        HBox mainLayout = new HBox();
+        mainLayout.getChildren().addAll(sideMenu, table);
+        HBox.setHgrow(table, Priority.ALWAYS);
+
+        BorderPane root = new BorderPane();
+        root.setTop(navbar);
+        root.setCenter(mainLayout);
+
+        Scene scene = new Scene(root, 1000, 600);
+        scene.getStylesheets().add("data:text/css," +
+                ".menu-button { -fx-background-color: transparent; -fx-text-fill: white; -fx-font-size: 18px; }" +
+                ".menu-button:hover { -fx-background-color: #37475a; }" +
+                "Button { -fx-background-color: #ff9900; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 6 12; }"
+                +
+                "Button:hover { -fx-background-color: #e68a00; }" +
+                "TableView { -fx-background-color: #f4f4f4; -fx-table-cell-border-color: #d9d9d9; }" +
+                ".table-row-cell:filled { -fx-background-color: #f4f4f4; }" +
+                ".table-row-cell:filled:expiring { -fx-background-color: #ffe0b3; }" +
+                ".table-row-cell:filled:expired { -fx-background-color: #ffcccc; }" +
+                ".table-row-cell:filled:selected { -fx-background-color: #3399ff; }" +
+                ".table-row-cell .table-cell { -fx-text-fill: black; -fx-font-weight: bold; }" +
+                ".table-row-cell:selected .table-cell { -fx-text-fill: white; }" +
+                "TableColumn-header { -fx-background-color: #232f3e; -fx-text-fill: white; }");
+
+        primaryStage.setScene(scene);
+        primaryStage.show();
+
+        // ===== Menu animation =====
+        menuBtn.setOnAction(e -> {
+            double targetWidth = sideMenu.getWidth() > 0 ? 0 : 200;
+            Timeline timeline = new Timeline();
+            KeyValue kv = new KeyValue(sideMenu.prefWidthProperty(), targetWidth);
+            KeyFrame kf = new KeyFrame(Duration.millis(200), kv);
+            timeline.getKeyFrames().add(kf);
+            timeline.play();
+        });
+
+        // ===== Button actions =====
+        addBtn.setOnAction(e -> showAddDialog());
+        editBtn.setOnAction(e -> showEditDialog());
+        removeBtn.setOnAction(e -> removeSelected());
+        useBtn.setOnAction(e -> showUseDialog());
+        purgeBtn.setOnAction(e -> purgeExpired());
+        exportBtn.setOnAction(e -> exportCSV(primaryStage));
+        importBtn.setOnAction(e -> importCSV(primaryStage));
+        expiringBtn.setOnAction(e -> showExpiringSoon());
+        dashboardBtn.setOnAction(e -> showDashboard());
+        calendarBtn.setOnAction(e -> showCalendar());
+        autoNotifyCheck.setOnAction(e -> {
+            autoNotify = autoNotifyCheck.isSelected();
+            PREFS.putBoolean("autoNotify", autoNotify);
+        });
+        warnDays.valueProperty().addListener((obs, old, val) -> changeWarningDays(val));
+
+        InventoryClock.get().addDayListener(() -> Platform.runLater(this::onDayChanged));
+
+        // ===== Load saved inventory =====
+        try {
+            store.load(manager);
+        } catch (IOException e) {
+            showAlert("Error", "Failed to load saved inventory: " + e.getMessage());
+        }
+        // Opt-in: -Dinventory.metrics.period=<seconds> appends the cumulative timers to metrics.csv
+        // next to the data; -Dinventory.metrics.log=true prints them (once a minute by default)
+        boolean logMetrics = Boolean.getBoolean("inventory.metrics.log");
+        if (METRICS_PERIOD_SECONDS > 0)
+            Metrics.startReporting(InventoryStore.defaultDirectory().resolve("metrics.csv"), METRICS_PERIOD_SECONDS,
+                    logMetrics);
+        else if (logMetrics)
+            Metrics.startReporting(null, 60, true);
+        refreshTable();
+        // From here on, mutations reach the table as change batches, not resets
+        manager.addListener(new ChangeBatcher(this::applyChanges, Platform::runLater));
+
+        // ===== Auto Expiry Alert =====
+        expiryNotifier.reschedule();
+        Platform.runLater(() -> {
+            if (autoNotify)
+                checkExpiringItems();
+        });
+    }
+
+    // ===== Midnight Rollover =====
+    // Moves the dashboard counters to the new day and repaints row status.
+    private void onDayChanged() {
+        manager.rollover();
+        expiryNotifier.reschedule();
+        table.refresh();
+    }
+
+    private void changeWarningDays(int days) {
+        manager.setWarningDays(days); // also item status, via ExpirySettings
+        PREFS.putInt("warningDays", days);
+        expiryNotifier.reschedule();
+        table.refresh();
+    }
+
+    // ===== Scheduled Expiry Alert =====
+    // One alert for everything crossing a threshold at the same midnight.
+    private void showTransitionAlert(ExpiryNotifier.Transition t) {
+        if (!autoNotify)
+            return;
+        StringBuilder sb = new StringBuilder();
+        if (!t.getExpiringSoon().isEmpty()) {
+            sb.append("⚠️ Now expiring soon:\n\n");
+            for (Item i : t.getExpiringSoon())
+                sb.append(i.getName()).append(" (").append(i.getDisplayQuantity()).append(") → ")
+                        .append(i.getExpiryDate()).append("\n");
+        }
+        if (!t.getExpired().isEmpty()) {
+            if (sb.length() > 0)
+                sb.append("\n");
+            sb.append("❌ Expired:\n\n");
+            for (Item i : t.getExpired())
+                sb.append(i.getName()).append(" (").append(i.getDisplayQuantity()).append(") → ")
+                        .append(i.getExpiryDate()).append("\n");
+        }
+        showAlert("Expiry Alert", sb.toString());
+    }
+
+    // ===== Automatic Expiry Alert =====
+    private void checkExpiringItems() {
+        long start = System.nanoTime();
+        List<Item> expiring = manager.getExpiringItems();
+        StringBuilder sb = new StringBuilder("⚠️ Items expiring soon:\n\n");
+        for (Item i : expiring) {
+            sb.append(i.getName()).append(" (").append(i.getDisplayQuantity()).append(") → ")
+                    .append(i.getExpiryDate())
+                    .append(" (in ").append(i.daysToExpiry()).append(" days)\n");
+        }
+        EXPIRY_CHECK_TIMER.record(start);
+        if (!expiring.isEmpty())
+            showAlert("Expiry Alert", sb.toString());
+    }
+
+    private void refreshTable() {
+        syncCategoryFilter();
+        requestFilter(0);
+        expiryNotifier.reschedule();
+    }
+
+    // New free-form categories (from dialogs or imports) show up in the filter box.
+    private void syncCategoryFilter() {
+        int known = categoryFilter.getItems().size() - 1; // minus "All"
+        List<String> categories = Dictionary.CATEGORIES.values();
+        if (categories.size() > known)
+            categoryFilter.getItems().addAll(categories.subList(known, categories.size()));
+    }
+
+    private static String requireCategory(String category) {
+        if (category == null || category.trim().isEmpty())
+            throw new IllegalArgumentException("Category is required");
+        return category.trim();
+    }
+
+    // Search text and category are applied together by the background filter pipeline.
+    private void requestFilter(long delayMillis) {
+        filterDueNanos = System.nanoTime() + delayMillis * 1_000_000;
+        filterPipeline.request(searchField.getText(), categoryFilter.getValue(), delayMillis);
+    }
+
+    // A result requested before the latest mutation may miss changes already applied
+    // to the table, so ask again; the next result will be current.
+    private void applyFilterResult(List<Item> items, long version) {
+        tableData.setAll(items);
+        REFRESH_TIMER.record(filterDueNanos); // from when the filter was due (after any debounce)
+        if (version != manager.getVersion())
+            requestFilter(0);
+    }
+
+    // ===== Apply change batches =====
+    // Only affected rows change: updates replace their row in place, removals and
+    // additions (that pass the current search / category) are one list change each.
+    private void applyChanges(List<InventoryChange> changes) {
+        long start = System.nanoTime();
+        String query = searchField.getText();
+        String category = categoryFilter.getValue();
+        List<Item> added = new ArrayList<>();
+        List<Item> updated = new ArrayList<>();
+        Set<Item> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (InventoryChange change : changes) {
+            Item item = change.getItem();
+            switch (change.getType()) {
+                case ADDED:
+                    if (InventoryManager.matches(item, query, category))
+                        added.add(item);
+                    break;
+                case UPDATED:
+                    updated.add(item);
+                    break;
+                case REMOVED:
+                    removed.add(item);
+                    break;
+            }
+        }
+
+        Map<Item, Integer> rows = updated.size() > 8 ? rowIndex() : null;
+        for (Item item : updated) {
+            Integer row = rows != null ? rows.get(item) : Integer.valueOf(tableData.indexOf(item));
+            boolean shown = row != null && row >= 0;
+            boolean matches = InventoryManager.matches(item, query, category);
+            if (shown && matches)
+                tableData.set(row, item); // same item: just repaints the row
+            else if (shown)
+                removed.add(item);
+            else if (matches)
+                added.add(item);
+        }
+        if (!removed.isEmpty())
+            tableData.removeAll(removed);
+        if (!added.isEmpty())
+            tableData.addAll(added);
+
+        syncCategoryFilter();
+        expiryNotifier.reschedule();
+        CHANGES_TIMER.record(start);
+    }
+
+    private Map<Item, Integer> rowIndex() {
+        Map<Item, Integer> rows = new IdentityHashMap<>(tableData.size() * 2);
+        for (int i = 0; i < tableData.size(); i++)
+            rows.put(tableData.get(i), i);
+        return rows;
+    }
+
+    // ===== Add / Edit / Remove =====
+    private void showAddDialog() {
+        Dialog<Item> dialog = new Dialog<>();
+        dialog.setTitle("Add Item");
+
+        ButtonType addButtonType = new ButtonType("Add", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(addButtonType, ButtonType.CANCEL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+
+        TextField nameField = new TextField();
+        nameField.setPromptText("Name");
+
+        ComboBox<String> categoryBox = new ComboBox<>();
+        categoryBox.getItems().addAll(Dictionary.CATEGORIES.values());
+        categoryBox.setEditable(true); // free-form categories are added to the dictionary
+        categoryBox.setValue("Food");
+
+        TextField quantityField = new TextField();
+        quantityField.setPromptText("Quantity");
+
+        ComboBox<String> unitBox = new ComboBox<>();
+        unitBox.getItems().addAll(Dictionary.UNITS.values());
+        unitBox.setValue("kg");
+
+        DatePicker expiryPicker = new DatePicker();
+        expiryPicker.setValue(InventoryClock.get().todayDate().plusDays(1));
+
+        grid.add(new Label("Name:"), 0, 0);
+        grid.add(nameField, 1, 0);
+        grid.add(new Label("Category:"), 0, 1);
+        grid.add(categoryBox, 1, 1);
+        grid.add(new Label("Quantity:"), 0, 2);
+        grid.add(quantityField, 1, 2);
+        grid.add(new Label("Unit:"), 0, 3);
+        grid.add(unitBox, 1, 3);
+        grid.add(new Label("Expiry Date:"), 0, 4);
+        grid.add(expiryPicker, 1, 4);
+
+        dialog.getDialogPane().setContent(grid);
+
+        dialog.setResultConverter(dialogButton -> {
+            if (dialogButton == addButtonType) {
+                try {
+                    double qty = Double.parseDouble(quantityField.getText().trim());
+                    return new Item(
+                            nameField.getText().trim(),
+                            requireCategory(categoryBox.getValue()),
+                            qty,
+                            unitBox.getValue(),
+                            expiryPicker.getValue());
+                } catch (Exception e) {
+                    showAlert("Error", "Please enter valid data!");
+                }
+            }
+            return null;
+        });
+
+        dialog.showAndWait().ifPresent(item -> {
+            manager.addItem(item);
+            if (autoNotify)
+                checkExpiringItems();
+        });
+    }
+
+    private void showEditDialog() {
+        Item selected = table.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            showAlert("Edit Item", "Please select an item to edit.");
+            return;
+        }
+
+        Dialog<Item> dialog = new Dialog<>();
+        dialog.setTitle("Edit Item");
+
+        ButtonType saveButtonType = new ButtonType("Save", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(saveButtonType, ButtonType.CANCEL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+
+        TextField nameField = new TextField(selected.getName());
+        ComboBox<String> categoryBox = new ComboBox<>();
+        categoryBox.getItems().addAll(Dictionary.CATEGORIES.values());
+        categoryBox.setEditable(true); // free-form categories are added to the dictionary
+        categoryBox.setValue(selected.getCategory());
+
+        TextField quantityField = new TextField(String.valueOf(selected.getQuantity()));
+
+        ComboBox<String> unitBox = new ComboBox<>();
+        unitBox.getItems().addAll(Dictionary.UNITS.values());
+        unitBox.setValue(selected.getUnit());
+
+        DatePicker expiryPicker = new DatePicker(selected.getExpiryDate());
+
+        grid.add(new Label("Name:"), 0, 0);
+        grid.add(nameField, 1, 0);
+        grid.add(new Label("Category:"), 0, 1);
+        grid.add(categoryBox, 1, 1);
+        grid.add(new Label("Quantity:"), 0, 2);
+        grid.add(quantityField, 1, 2);
+        grid.add(new Label("Unit:"), 0, 3);
+        grid.add(unitBox, 1, 3);
+        grid.add(new Label("Expiry Date:"), 0, 4);
+        grid.add(expiryPicker, 1, 4);
+
+        dialog.getDialogPane().setContent(grid);
+
+        dialog.setResultConverter(dialogButton -> {
+            if (dialogButton == saveButtonType) {
+                try {
+                    double qty = Double.parseDouble(quantityField.getText().trim());
+                    manager.updateItem(selected,
+                            nameField.getText().trim(),
+                            requireCategory(categoryBox.getValue()),
+                            qty,
+                            unitBox.getValue(),
+                            expiryPicker.getValue());
+                    return selected;
+                } catch (Exception e) {
+                    showAlert("Error", "Please enter valid data!");
+                }
+            }
+            return null;
+        });
+
+        dialog.showAndWait().ifPresent(item -> {
+            if (autoNotify)
+                checkExpiringItems();
+        });
+    }
+
+    // Takes an amount of a product from its lots, soonest expiry first (see InventoryManager.consume).
+    private void showUseDialog() {
+        Item selected = table.getSelectionModel().getSelectedItem();
+
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Use Item");
+        ButtonType useButtonType = new ButtonType("Use", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(useButtonType, ButtonType.CANCEL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+
+        TextField productField = new TextField(selected == null ? "" : selected.getName());
+        TextField amountField = new TextField();
+        ComboBox<String> unitBox = new ComboBox<>();
+        unitBox.getItems().addAll(Dictionary.UNITS.values());
+        unitBox.setValue(selected == null ? "kg" : selected.getUnit());
+        Label inStock = new Label();
+        Runnable showTotals = () -> inStock.setText(describeTotals(productField.getText().trim()));
+        productField.textProperty().addListener((obs, o, n) -> showTotals.run());
+        showTotals.run();
+
+        grid.add(new Label("Product:"), 0, 0);
+        grid.add(productField, 1, 0);
+        grid.add(new Label("In stock:"), 0, 1);
+        grid.add(inStock, 1, 1);
+        grid.add(new Label("Amount:"), 0, 2);
+        grid.add(amountField, 1, 2);
+        grid.add(new Label("Unit:"), 0, 3);
+        grid.add(unitBox, 1, 3);
+        dialog.getDialogPane().setContent(grid);
+
+        dialog.showAndWait().filter(b -> b == useButtonType).ifPresent(b -> {
+            String product = productField.getText().trim();
+            double amount;
+            try {
+                amount = Double.parseDouble(amountField.getText().trim());
+            } catch (NumberFormatException e) {
+                showAlert("Error", "Please enter a valid amount!");
+                return;
+            }
+            try {
+                List<Item> lots = manager.consume(product, amount, unitBox.getValue());
+                StringBuilder sb = new StringBuilder("Used " + amountField.getText().trim() + " "
+                        + unitBox.getValue() + " of " + product + " from " + lots.size() + " lot(s):\n");
+                for (Item lot : lots)
+                    sb.append("- expiring ").append(lot.getExpiryDate()).append('\n');
+                sb.append("\nLeft: ").append(describeTotals(product));
+                showAlert("Use Item", sb.toString());
+            } catch (IllegalArgumentException e) {
+                showAlert("Use Item", e.getMessage());
+            }
+        });
+    }
+
+    private String describeTotals(String product) {
+        StringBuilder sb = new StringBuilder();
+        manager.getTotals(product).forEach((unit, total) -> {
+            if (sb.length() > 0)
+                sb.append(", ");
+            sb.append(Math.round(total * 1000) / 1000.0).append(' ').append(unit);
+        });
+        return sb.length() == 0 ? "none" : sb.toString();
+    }
+
+    // All selected rows go in one batch: one lock, one journal burst, one table update.
+    private void removeSelected() {
+        List<Item> selected = new ArrayList<>(table.getSelectionModel().getSelectedItems());
+        if (selected.isEmpty()) {
+            showAlert("Remove Item", "Please select an item to remove.");
+            return;
+        }
+        manager.removeAll(selected);
+    }
+
+    private void purgeExpired() {
+        int expired = manager.getStats().getExpired();
+        if (expired == 0) {
+            showAlert("Purge Expired", "No items have expired.");
+            return;
+        }
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
+                "Remove all " + expired + " expired items?", ButtonType.OK, ButtonType.CANCEL);
+        confirm.setTitle("Purge Expired");
+        confirm.showAndWait().filter(b -> b == ButtonType.OK).ifPresent(b -> {
+            int removed = manager.purgeExpired();
+            showAlert("Purge Expired", "Removed " + removed + " expired items.");
+        });
+    }
+
+    // What to do with rows that repeat an item (same name, category, unit and expiry),
+    // e.g. when the same file is imported twice; null if cancelled.
+    private InventoryManager.Duplicates chooseDuplicateMode() {
+        String merge = "Merge duplicates (add up quantities)";
+        String skip = "Skip duplicates";
+        String add = "Import every row";
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(merge, merge, skip, add);
+        dialog.setTitle("Import CSV");
+        dialog.setHeaderText("Rows matching an item's name, category, unit and expiry date:");
+        return dialog.showAndWait()
+                .map(c -> c.equals(merge) ? InventoryManager.Duplicates.MERGE
+                        : c.equals(skip) ? InventoryManager.Duplicates.SKIP : InventoryManager.Duplicates.ADD)
+                .orElse(null);
+    }
+
+    // ===== Export CSV =====
+    // Writes a snapshot taken on the FX thread, so later adds and removals don't tear
+    // the file; the worker copies the items, since edits change them in place.
+    private void exportCSV(Stage stage) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export CSV");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV files", "*.csv"),
+                new FileChooser.ExtensionFilter("Gzipped CSV archives", "*.csv.gz"));
+        File file = fileChooser.showSaveDialog(stage);
+        if (file == null)
+            return;
+
+        boolean gzip = file.getName().toLowerCase().endsWith(".gz");
+        List<Item> snapshot = manager.getAllItems();
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                return new CsvExporter().export(manager.copies(snapshot), file.toPath(), gzip,
+                        p -> updateProgress(p, 1.0), this::isCancelled);
+            }
+        };
+        Alert progress = progressDialog("Exporting CSV", file.getName(), task);
+
+        task.setOnSucceeded(e -> progress.close());
+        task.setOnFailed(e -> {
+            progress.close();
+            showAlert("Error", "Failed to export CSV.");
+        });
+        task.setOnCancelled(e -> progress.close());
+
+        Thread worker = new Thread(task, "csv-export-task");
+        worker.setDaemon(true);
+        worker.start();
+        progress.show();
+    }
+
+    // ===== Import CSV =====
+    // Parsing runs off the FX thread. The merge then runs on the FX thread a chunk
+    // at a time, since it edits items the table is showing; between chunks the
+    // write lock is free and the UI gets to repaint. Cancelling stops between chunks.
+    private void importCSV(Stage stage) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import CSV");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV files", "*.csv"),
+                new FileChooser.ExtensionFilter("Gzipped CSV archives", "*.csv.gz"));
+        File file = fileChooser.showOpenDialog(stage);
+        if (file == null)
+            return;
+        InventoryManager.Duplicates mode = chooseDuplicateMode();
+        if (mode == null)
+            return;
+
+        long start = System.nanoTime();
+        Task<String> task = new Task<>() {
+            @Override
+            protected String call() throws Exception {
+                CsvImporter.Result result = new CsvImporter().importFile(file.toPath(), p -> updateProgress(p, 1.0));
+                List<Item> rows = result.getItems();
+                InventoryManager.MergeResult total = InventoryManager.MergeResult.NONE;
+                for (int from = 0; from < rows.size(); from += IMPORT_MERGE_CHUNK) {
+                    if (isCancelled())
+                        return null;
+                    List<Item> chunk = rows.subList(from, Math.min(from + IMPORT_MERGE_CHUNK, rows.size()));
+                    FutureTask<InventoryManager.MergeResult> step = new FutureTask<>(() -> manager.mergeAll(chunk, mode));
+                    Platform.runLater(step);
+                    total = total.plus(step.get());
+                    updateMessage("Rows " + total + " before the import was cancelled.");
+                    updateProgress(from + chunk.size(), rows.size());
+                }
+                return "Rows " + total + ".\n\n" + result.summary(20);
+            }
+        };
+        Alert progress = progressDialog("Importing CSV", file.getName(), task);
+
+        task.setOnSucceeded(e -> {
+            progress.close();
+            IMPORT_TIMER.record(start);
+            showAlert("Import CSV", task.getValue());
+            if (autoNotify)
+                checkExpiringItems();
+        });
+        task.setOnFailed(e -> {
+            progress.close();
+            showAlert("Error", "Failed to import CSV. Format: " + CsvImporter.FORMAT);
+        });
+        task.setOnCancelled(e -> {
+            progress.close();
+            if (!task.getMessage().isEmpty()) // cancelled part way through the merge
+                showAlert("Import CSV", task.getMessage());
+        });
+
+        Thread worker = new Thread(task, "csv-import-task");
+        worker.setDaemon(true);
+        worker.start();
+        progress.show();
+    }
+
+    // Non-blocking dialog bound to a background task's progress.
+    private Alert progressDialog(String title, String header, Task<?> task) {
+        ProgressBar bar = new ProgressBar();
+        bar.setPrefWidth(300);
+        bar.progressProperty().bind(task.progressProperty());
+
+        Alert dialog = new Alert(Alert.AlertType.NONE);
+        dialog.setTitle(title);
+        dialog.setHeaderText(header);
+        dialog.getDialogPane().setContent(bar);
+        dialog.getButtonTypes().setAll(ButtonType.CANCEL);
+        dialog.setOnCloseRequest(e -> {
+            if (task.isRunning())
+                task.cancel();
+        });
+        return dialog;
+    }
+
+    private void showExpiringSoon() {
+        List<Item> expiring = manager.getExpiringItems();
+        if (expiring.isEmpty())
+            showAlert("Expiring Soon",
+                    "No items are expiring in the next " + manager.getWarningDays() + " days.");
+        else {
+            StringBuilder sb = new StringBuilder();
+            for (Item i : expiring)
+                sb.append("⚠️ ").append(i.getName())
+                        .append(" → ").append(i.getExpiryDate())
+                        .append(" (in ").append(i.daysToExpiry()).append(" days)\n");
+            showAlert("Expiring Soon", sb.toString());
+        }
+    }
+
+    private void showDashboard() {
+        long start = System.nanoTime();
+        InventoryManager.Stats stats = manager.getStats();
+
+        Alert dashboard = new Alert(Alert.AlertType.INFORMATION);
+        dashboard.setTitle("📊 Dashboard Summary");
+        dashboard.setHeaderText("Inventory Overview");
+        StringBuilder msg = new StringBuilder()
+                .append("Total Items: ").append(stats.getTotal()).append("\n")
+                .append("❌ Expired: ").append(stats.getExpired()).append("\n")
+                .append("⚠️ Expiring Soon: ").append(stats.getExpiringSoon()).append("\n")
+                .append("✅ Safe: ").append(stats.getSafe()).append("\n");
+        if (!stats.getByCategory().isEmpty()) {
+            msg.append("\nBy Category:\n");
+            stats.getByCategory().forEach((c, n) -> msg.append("  ").append(c).append(": ").append(n).append("\n"));
+        }
+        if (!stats.getQuantityByUnit().isEmpty()) {
+            msg.append("\nTotal Quantity:\n");
+            stats.getQuantityByUnit().forEach((u, q) -> msg.append("  ").append(q).append(" ").append(u).append("\n"));
+        }
+        dashboard.setContentText(msg.toString());
+        DASHBOARD_TIMER.record(start);
+        dashboard.showAndWait();
+    }
+
+    // ===== Calendar View =====
+    // A month grid of expiry counts: one getExpiryCounts call per month shown,
+    // and a click on a day lists just that day's items.
+    private void showCalendar() {
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.setTitle("📅 Calendar View");
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+        dialog.getDialogPane().getStylesheets().add(CALENDAR_CSS);
+
+        YearMonth[] month = { YearMonth.from(InventoryClock.get().todayDate()) };
+        Label monthLabel = new Label();
+        monthLabel.getStyleClass().add("calendar-month");
+        monthLabel.setMinWidth(220);
+        monthLabel.setAlignment(Pos.CENTER);
+        Button prev = new Button("◀");
+        Button next = new Button("▶");
+        HBox header = new HBox(10, prev, monthLabel, next);
+        header.setAlignment(Pos.CENTER);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(4);
+        grid.setVgap(4);
+        Label dayTitle = new Label("Click a day to see what expires on it.");
+        ListView<String> dayItems = new ListView<>();
+        dayItems.setPrefHeight(150);
+
+        Runnable render = () -> {
+            long start = System.nanoTime();
+            LocalDate first = month[0].atDay(1);
+            LocalDate gridStart = first.minusDays(first.getDayOfWeek().getValue() - 1); // Monday
+            int[] counts = manager.getExpiryCounts(gridStart, 42);
+            int total = manager.countExpiringBetween(first, month[0].atEndOfMonth());
+            monthLabel.setText(first.getMonth().getDisplayName(TextStyle.FULL, Locale.getDefault()) + " "
+                    + first.getYear() + " (" + total + ")");
+
+            grid.getChildren().clear();
+            for (int d = 0; d < 7; d++)
+                grid.add(new Label(gridStart.plusDays(d).getDayOfWeek()
+                        .getDisplayName(TextStyle.SHORT, Locale.getDefault())), d, 0);
+            for (int i = 0; i < counts.length; i++) {
+                LocalDate day = gridStart.plusDays(i);
+                Button cell = new Button(day.getDayOfMonth() + (counts[i] > 0 ? "\n" + counts[i] + " 📦" : "\n "));
+                cell.setPrefSize(70, 50);
+                cell.getStyleClass().add("calendar-day");
+                ExpiryStatus status = ExpiryStatus.of((int) day.toEpochDay());
+                cell.pseudoClassStateChanged(HAS_ITEMS, counts[i] > 0);
+                cell.pseudoClassStateChanged(EXPIRED, status == ExpiryStatus.EXPIRED);
+                cell.pseudoClassStateChanged(EXPIRING, status == ExpiryStatus.EXPIRING);
+                cell.pseudoClassStateChanged(OTHER_MONTH, day.getMonthValue() != first.getMonthValue());
+                cell.setOnAction(e -> {
+                    List<Item> items = manager.getItemsExpiringOn(day);
+                    dayTitle.setText("Expiring on " + day + ": " + items.size());
+                    List<String> lines = new ArrayList<>(items.size());
+                    for (Item item : items)
+                        lines.add(STATUS_EMOJI[item.getStatus().ordinal()] + item.getName() + " — "
+                                + item.getQuantity() + " " + item.getUnit() + " (" + item.getCategory() + ")");
+                    dayItems.getItems().setAll(lines);
+                });
+                grid.add(cell, i % 7, 1 + i / 7);
+            }
+            CALENDAR_TIMER.record(start);
+        };
+        prev.setOnAction(e -> {
+            month[0] = month[0].minusMonths(1);
+            render.run();
+        });
+        next.setOnAction(e -> {
+            month[0] = month[0].plusMonths(1);
+            render.run();
+        });
+        render.run();
+
+        VBox content = new VBox(10, header, grid, dayTitle, dayItems);
+        content.setPadding(new Insets(10));
+        dialog.getDialogPane().setContent(content);
+        dialog.showAndWait();
+    }
+
+    private void showAlert(String title, String msg) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle(title);
+        alert.setContentText(msg);
+        alert.showAndWait();
+    }
+
+    @Override
+    public void stop() {
+        Metrics.stopReporting();
+        filterPipeline.shutdown();
+        expiryNotifier.shutdown();
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.err.println("Failed to flush inventory journal: " + e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
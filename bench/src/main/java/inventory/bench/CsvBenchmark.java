@@ -0,0 +1,74 @@
+package inventory.bench;
+
+import inventory.CsvExporter;
+import inventory.CsvImporter;
+import inventory.Item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV import and export of a generated inventory, plain and gzipped. The
+ * input files are written once per trial into a temp directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx12g" })
+public class CsvBenchmark {
+
+    @Param({ "1000", "100000", "1000000", "10000000" })
+    public int size;
+
+    @Param({ "false", "true" })
+    public boolean gzip;
+
+    private Path dir;
+    private Path input;
+    private Path output;
+    private List<Item> items;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("inventory-bench");
+        String suffix = gzip ? ".csv.gz" : ".csv";
+        input = InventoryGenerator.csv(dir.resolve("input" + suffix), size);
+        output = dir.resolve("output" + suffix);
+        items = InventoryGenerator.items(size);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public CsvImporter.Result importCsv() throws IOException {
+        return new CsvImporter().importFile(input, null);
+    }
+
+    @Benchmark
+    public long exportCsv() throws IOException {
+        return new CsvExporter().export(items, output, gzip, null, null);
+    }
+}
@@ -0,0 +1,85 @@
+package inventory.bench;
+
+import inventory.CsvExporter;
+import inventory.InventoryClock;
+import inventory.InventoryManager;
+import inventory.Item;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic inventories for the benchmarks. The same seed always gives the
+ * same items, so runs are comparable.
+ *
+ * Names are "<adjective> <product> <n>" from small word lists, so both
+ * common words ("milk") and rare substrings ("milk 12345") occur. Categories
+ * are skewed towards Food the way a real household inventory is, and expiry
+ * dates spread from a month in the past to a year ahead of today.
+ */
+public final class InventoryGenerator {
+
+    public static final long SEED = 42;
+
+    private static final String[] ADJECTIVES = {
+        "Fresh", "Organic", "Frozen", "Whole", "Dried", "Spicy", "Sweet", "Large", "Mini", "Family",
+    };
+    private static final String[] PRODUCTS = {
+        "milk", "bread", "cheese", "rice", "pasta", "apples", "yogurt", "coffee", "tea", "butter",
+        "aspirin", "vitamins", "bandages", "cough syrup", "batteries", "charger", "bulbs", "soap",
+        "detergent", "flour",
+    };
+    private static final String[] CATEGORIES = { "Food", "Medicine", "Electronics", "Other" };
+    private static final int[] CATEGORY_WEIGHTS = { 70, 10, 8, 12 }; // percent
+    private static final String[] UNITS = { "kg", "g", "liter", "pcs" };
+
+    private InventoryGenerator() {
+    }
+
+    // ===== Items =====
+    public static List<Item> items(int count) {
+        return items(count, SEED);
+    }
+
+    public static List<Item> items(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long today = InventoryClock.get().today();
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + PRODUCTS[random.nextInt(PRODUCTS.length)] + " " + i;
+            String unit = UNITS[random.nextInt(UNITS.length)];
+            double quantity = unit.equals("pcs") ? 1 + random.nextInt(24) : random.nextInt(1, 50) / 2.0;
+            LocalDate expiry = LocalDate.ofEpochDay(today - 30 + random.nextInt(396));
+            items.add(new Item(name, category(random), quantity, unit, expiry));
+        }
+        return items;
+    }
+
+    private static String category(SplittableRandom random) {
+        int r = random.nextInt(100);
+        for (int c = 0; c < CATEGORIES.length; c++) {
+            r -= CATEGORY_WEIGHTS[c];
+            if (r < 0)
+                return CATEGORIES[c];
+        }
+        return CATEGORIES[CATEGORIES.length - 1];
+    }
+
+    // ===== Manager & CSV =====
+    public static InventoryManager manager(int count) {
+        InventoryManager manager = new InventoryManager();
+        manager.addAll(items(count));
+        return manager;
+    }
+
+    // Writes count generated items in the import format; returns the file.
+    public static Path csv(Path file, int count) throws IOException {
+        new CsvExporter().export(items(count), file, file.toString().endsWith(".gz"), null, null);
+        return file;
+    }
+}
@@ -0,0 +1,96 @@
+package inventory.bench;
+
+import inventory.InventoryManager;
+import inventory.Item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of InventoryManager over a generated inventory: name search,
+ * category filter, the expiry window and the dashboard counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx12g" })
+public class ManagerBenchmark {
+
+    @Param({ "1000", "100000", "1000000", "10000000" })
+    public int size;
+
+    private InventoryManager manager;
+
+    @Setup
+    public void setup() {
+        manager = InventoryGenerator.manager(size);
+    }
+
+    // Common word: a large share of the inventory matches
+    @Benchmark
+    public List<Item> searchCommon() {
+        return manager.searchItems("milk");
+    }
+
+    // Rare substring: the trigram index narrows it to a handful of candidates
+    @Benchmark
+    public List<Item> searchRare() {
+        return manager.searchItems("cheese 12");
+    }
+
+    // Below trigram length: scans the cached lowercase names
+    @Benchmark
+    public List<Item> searchShort() {
+        return manager.searchItems("te");
+    }
+
+    @Benchmark
+    public List<Item> filterByCategory() {
+        return manager.filterByCategory("Medicine");
+    }
+
+    @Benchmark
+    public List<Item> filterSearchAndCategory() {
+        return manager.filter("milk", "Food");
+    }
+
+    @Benchmark
+    public List<Item> getExpiringItems() {
+        return manager.getExpiringItems();
+    }
+
+    @Benchmark
+    public List<Item> getExpiredItems() {
+        return manager.getExpiredItems();
+    }
+
+    @Benchmark
+    public InventoryManager.Stats dashboardStats() {
+        return manager.getStats();
+    }
+
+    @Benchmark
+    public Map<String, Integer> categoryCounts() {
+        return manager.getCategoryCounts();
+    }
+
+    @Benchmark
+    public List<Item> getAllItems() {
+        return manager.getAllItems();
+    }
+}
@@ -0,0 +1,70 @@
+package inventory.bench;
+
+import inventory.InventoryManager;
+import inventory.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Retained heap per item for the same generated inventory held two ways,
+ * excluding the name strings (the template items built first hold them, and
+ * both layouts share them):
+ *
+ *   items    - Items in an ArrayList
+ *   manager  - a fully indexed InventoryManager
+ *
+ * The difference is what the indexes cost on top of the items themselves.
+ *
+ * Not a JMH benchmark: it measures heap after GC, not time. Run with
+ * "java -cp bench/target/benchmarks.jar inventory.bench.MemoryFootprint [count]",
+ * ideally with a fixed heap (e.g. -Xms4g -Xmx4g) so GC settles quickly.
+ */
+public final class MemoryFootprint {
+
+    private static Object held; // what is being measured, kept reachable across the GC
+
+    private MemoryFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Item> template = InventoryGenerator.items(count);
+
+        System.out.printf("%,d items, bytes per item excluding names:%n", count);
+        measure("items", count, n -> copies(template));
+        measure("manager", count, n -> {
+            InventoryManager manager = new InventoryManager();
+            manager.addAll(copies(template));
+            return manager;
+        });
+    }
+
+    private static void measure(String label, int count, IntFunction<Object> build) {
+        long before = usedAfterGc();
+        held = build.apply(count);
+        long after = usedAfterGc();
+        held = null;
+        System.out.printf("  %-8s %8.1f%n", label, (after - before) / (double) count);
+    }
+
+    private static List<Item> copies(List<Item> template) {
+        List<Item> items = new ArrayList<>(template.size());
+        for (int i = 0; i < template.size(); i++) {
+            Item t = template.get(i);
+            items.add(new Item(t.getName(), t.getCategory(), t.getQuantity(), t.getUnit(), t.getExpiryDate()));
+        }
+        return items;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,91 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Collects an InventoryManager's mutations into batches of typed changes and
+ * delivers each batch through an executor (Platform::runLater in the app).
+ *
+ * Every mutation made before the executor gets round to a flush lands in the
+ * same batch, so an import of a million rows is one batch, and changes to the
+ * same item are coalesced to their net effect: added then updated is one
+ * ADDED, added then removed disappears, updated twice is one UPDATED.
+ * Batches keep first-change order.
+ */
+public class ChangeBatcher implements InventoryListener {
+
+    private final Consumer<List<InventoryChange>> onBatch;
+    private final Executor executor;
+
+    // Pending net change per item (Items compare by identity); guarded by this
+    private Map<Item, InventoryChange.Type> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+
+    public ChangeBatcher(Consumer<List<InventoryChange>> onBatch, Executor executor) {
+        this.onBatch = onBatch;
+        this.executor = executor;
+    }
+
+    // ===== InventoryListener (called under the manager's write lock) =====
+    @Override
+    public void itemAdded(Item item) {
+        record(item, InventoryChange.Type.ADDED);
+    }
+
+    @Override
+    public void itemUpdated(Item item) {
+        record(item, InventoryChange.Type.UPDATED);
+    }
+
+    @Override
+    public void itemRemoved(Item item) {
+        record(item, InventoryChange.Type.REMOVED);
+    }
+
+    private synchronized void record(Item item, InventoryChange.Type type) {
+        InventoryChange.Type net = coalesce(pending.get(item), type);
+        if (net == null)
+            pending.remove(item);
+        else
+            pending.put(item, net);
+        if (!scheduled) {
+            scheduled = true;
+            executor.execute(this::flush);
+        }
+    }
+
+    // Net effect of an earlier pending change followed by a new one; null = no change.
+    private static InventoryChange.Type coalesce(InventoryChange.Type previous, InventoryChange.Type next) {
+        if (previous == null)
+            return next;
+        switch (previous) {
+            case ADDED:
+                return next == InventoryChange.Type.REMOVED ? null : InventoryChange.Type.ADDED;
+            case REMOVED:
+                return next == InventoryChange.Type.ADDED ? InventoryChange.Type.UPDATED : InventoryChange.Type.REMOVED;
+            default: // UPDATED
+                return next == InventoryChange.Type.REMOVED ? InventoryChange.Type.REMOVED : InventoryChange.Type.UPDATED;
+        }
+    }
+
+    // ===== Delivery =====
+    private void flush() {
+        Map<Item, InventoryChange.Type> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            scheduled = false;
+        }
+        if (batch.isEmpty())
+            return;
+        List<InventoryChange> changes = new ArrayList<>(batch.size());
+        for (Map.Entry<Item, InventoryChange.Type> e : batch.entrySet())
+            changes.add(new InventoryChange(e.getValue(), e.getKey()));
+        onBatch.accept(changes);
+    }
+}
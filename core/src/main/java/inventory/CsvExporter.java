@@ -0,0 +1,100 @@
+package inventory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a snapshot of the inventory as CSV in the layout CsvImporter reads.
+ * Meant to run off the FX thread; fields are streamed straight into a large
+ * buffered writer instead of concatenating a string per row.
+ */
+public class CsvExporter {
+
+    public static final String HEADER = "Name,Category,Quantity,Unit,Expiry";
+
+    private static final int WRITE_BUFFER = 1 << 20;
+    private static final int PROGRESS_EVERY = 4096;
+    private static final LatencyTimer EXPORT_TIMER = Metrics.timer("csv.export");
+
+    // ===== Export =====
+    // Returns the number of rows written. A cancelled export deletes the partial file.
+    public long export(List<Item> snapshot, Path file, boolean gzip, DoubleConsumer progress,
+            BooleanSupplier cancelled) throws IOException {
+        long start = System.nanoTime();
+        int total = snapshot.size();
+        long written = 0;
+        boolean complete = false;
+        try (Writer out = open(file, gzip)) {
+            out.write(HEADER);
+            out.write('\n');
+            for (Item item : snapshot) {
+                writeField(out, item.getName());
+                out.write(',');
+                writeField(out, item.getCategory());
+                out.write(',');
+                out.write(Double.toString(item.getQuantity()));
+                out.write(',');
+                writeField(out, item.getUnit());
+                out.write(',');
+                out.write(item.getExpiryDate().toString());
+                out.write('\n');
+                written++;
+                if (written % PROGRESS_EVERY == 0) {
+                    if (cancelled != null && cancelled.getAsBoolean())
+                        throw new CancellationException("Export cancelled");
+                    if (progress != null)
+                        progress.accept((double) written / total);
+                }
+            }
+            complete = true;
+        } finally {
+            if (!complete)
+                Files.deleteIfExists(file);
+            EXPORT_TIMER.record(start);
+        }
+        if (progress != null)
+            progress.accept(1.0);
+        return written;
+    }
+
+    private static Writer open(Path file, boolean gzip) throws IOException {
+        OutputStream os = Files.newOutputStream(file);
+        if (gzip)
+            os = new GZIPOutputStream(os, 1 << 16);
+        return new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8), WRITE_BUFFER);
+    }
+
+    // Quotes a field only when it contains a separator, quote or line break.
+    private static void writeField(Writer out, String value) throws IOException {
+        if (value == null)
+            return;
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"')
+                out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,304 @@
+package inventory;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.DoubleConsumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams a CSV file (Name,Category,Quantity,Unit,Expiry) and parses it in
+ * chunks on worker threads. Row errors are collected instead of reported one
+ * by one, so the caller can show a single summary at the end.
+ */
+public class CsvImporter {
+
+    public static final String FORMAT = "Name,Category,Quantity,Unit,Expiry yyyy-mm-dd";
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final int READ_BUFFER = 1 << 20;
+    private static final int MAX_RECORD_LINES = 100; // physical lines one quoted field may continue over
+    private static final LatencyTimer IMPORT_TIMER = Metrics.timer("csv.import");
+
+    private final int threads;
+
+    public CsvImporter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public CsvImporter(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    // ===== Import =====
+    // Progress is reported as an approximate fraction (0..1) of the file read so far.
+    public Result importFile(Path file, DoubleConsumer progress) throws IOException {
+        long start = System.nanoTime();
+        long totalBytes = Math.max(1, Files.size(file));
+        CountingInputStream raw = new CountingInputStream(Files.newInputStream(file));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "csv-import");
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<Chunk>> pending = new ArrayList<>();
+        try (raw; BufferedReader in = new BufferedReader(
+                new InputStreamReader(decompress(file, raw), StandardCharsets.UTF_8), READ_BUFFER)) {
+            List<String> records = new ArrayList<>(CHUNK_SIZE);
+            int[] lines = new int[CHUNK_SIZE];
+            int lineNumber = 0;
+            ArrayDeque<String> replay = new ArrayDeque<>(); // lines taken back from an unterminated quote
+            String line;
+            boolean header = true;
+            while ((line = replay.isEmpty() ? in.readLine() : replay.poll()) != null) {
+                lineNumber++;
+                int recordStart = lineNumber;
+                // A quoted field may span several physical lines
+                if (hasOpenQuote(line)) {
+                    StringBuilder record = new StringBuilder(line);
+                    List<String> continuation = new ArrayList<>();
+                    boolean open = true;
+                    while (open && continuation.size() < MAX_RECORD_LINES) {
+                        String next = replay.isEmpty() ? in.readLine() : replay.poll();
+                        if (next == null)
+                            break;
+                        continuation.add(next);
+                        open = hasOpenQuote(record.append('\n').append(next));
+                    }
+                    if (open) {
+                        // Never closed: report the opening line and read the rest as rows of their own
+                        for (int i = continuation.size() - 1; i >= 0; i--)
+                            replay.addFirst(continuation.get(i));
+                        recordStart = -recordStart;
+                    } else {
+                        line = record.toString();
+                        lineNumber += continuation.size();
+                    }
+                }
+                if (header) {
+                    header = false; // skip header
+                    continue;
+                }
+                lines[records.size()] = recordStart; // negative for an unterminated quote
+                records.add(line);
+                if (records.size() == CHUNK_SIZE) {
+                    pending.add(submit(pool, records, lines));
+                    records = new ArrayList<>(CHUNK_SIZE);
+                    lines = new int[CHUNK_SIZE];
+                    if (progress != null)
+                        progress.accept(Math.min(1.0, (double) raw.count / totalBytes));
+                }
+            }
+            if (!records.isEmpty())
+                pending.add(submit(pool, records, lines));
+
+            Result result = new Result();
+            for (Future<Chunk> f : pending) {
+                Chunk chunk = f.get();
+                result.items.addAll(chunk.items);
+                result.errors.addAll(chunk.errors);
+                result.rows += chunk.rows;
+            }
+            result.elapsedNanos = System.nanoTime() - start;
+            if (progress != null)
+                progress.accept(1.0);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Import failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            IMPORT_TIMER.record(start);
+        }
+    }
+
+    // Archives written by CsvExporter with gzip enabled end in .gz
+    private static InputStream decompress(Path file, InputStream in) throws IOException {
+        if (file.getFileName().toString().toLowerCase().endsWith(".gz"))
+            in = new GZIPInputStream(in, 1 << 16);
+        return in;
+    }
+
+    // Bytes taken from the file itself, so progress is against Files.size even for .gz
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0)
+                count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0)
+                count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    private static Future<Chunk> submit(ExecutorService pool, List<String> records, int[] lines) {
+        return pool.submit(() -> parseChunk(records, lines));
+    }
+
+    // ===== Chunk parsing (runs on worker threads) =====
+    private static Chunk parseChunk(List<String> records, int[] lines) {
+        Chunk chunk = new Chunk(records.size());
+        for (int r = 0; r < records.size(); r++) {
+            String record = records.get(r);
+            int lineNumber = lines[r];
+            chunk.rows++;
+            if (lineNumber < 0) {
+                chunk.errors.add("Unterminated quote at line " + -lineNumber);
+                continue;
+            }
+            List<String> parts = splitRecord(record);
+            if (parts.size() < 5) {
+                chunk.errors.add("Invalid format at line " + lineNumber);
+            } else {
+                try {
+                    double quantity = Double.parseDouble(parts.get(2).trim());
+                    String unit = parts.get(3).trim();
+                    LocalDate expiry = LocalDate.parse(parts.get(4).trim());
+                    chunk.items.add(new Item(parts.get(0).trim(), parts.get(1).trim(), quantity, unit, expiry));
+                } catch (Exception e) {
+                    chunk.errors.add("Invalid number or date at line " + lineNumber);
+                }
+            }
+        }
+        return chunk;
+    }
+
+    // ===== CSV field splitting (RFC 4180 quoting) =====
+    // A quote opens a quoted field only as the field's first character; elsewhere
+    // (TV 55") it is an ordinary character.
+    static List<String> splitRecord(String record) {
+        List<String> fields = new ArrayList<>(5);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        int n = record.length();
+        for (int i = 0; i < n; i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < n && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+                continue;
+            } else {
+                field.append(c);
+            }
+            fieldStart = false;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Whether the record ends inside a quoted field, by the same rules as splitRecord
+    static boolean hasOpenQuote(CharSequence record) {
+        boolean quoted = false;
+        boolean fieldStart = true;
+        int n = record.length();
+        for (int i = 0; i < n; i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < n && record.charAt(i + 1) == '"')
+                        i++;
+                    else
+                        quoted = false;
+                }
+                fieldStart = false;
+            } else {
+                quoted = c == '"' && fieldStart;
+                fieldStart = c == ',';
+            }
+        }
+        return quoted;
+    }
+
+    private static class Chunk {
+        final List<Item> items;
+        final List<String> errors = new ArrayList<>();
+        int rows;
+
+        Chunk(int capacity) {
+            items = new ArrayList<>(capacity);
+        }
+    }
+
+    // ===== Import Result =====
+    public static class Result {
+        private final List<Item> items = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private int rows;
+        private long elapsedNanos;
+
+        public List<Item> getItems() { return items; }
+        public List<String> getErrors() { return errors; }
+        public int getRows() { return rows; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        // One message for the whole import, listing at most maxErrors row errors.
+        public String summary(int maxErrors) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Imported ").append(items.size()).append(" of ").append(rows).append(" rows in ")
+                    .append(elapsedNanos / 1_000_000).append(" ms (")
+                    .append(Math.round(getRowsPerSecond())).append(" rows/s)");
+            if (!errors.isEmpty()) {
+                sb.append("\n\n").append(errors.size()).append(" row(s) skipped:\n");
+                for (int i = 0; i < errors.size() && i < maxErrors; i++)
+                    sb.append(errors.get(i)).append('\n');
+                if (errors.size() > maxErrors)
+                    sb.append("... and ").append(errors.size() - maxErrors).append(" more\n");
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary encoding for the small, repetitive string columns of an Item
+ * (category and unit). Each distinct value gets a dense int code the first
+ * time it is seen, so items store an int and the manager can keep arrays of
+ * per-code buckets. Lookups ignore case (Locale.ROOT, so "MEDICINE" matches
+ * "Medicine" under a Turkish locale too): the first spelling seen becomes the
+ * canonical one. Safe to use from the import worker threads.
+ */
+public class Dictionary {
+
+    public static final Dictionary CATEGORIES = new Dictionary("Food", "Medicine", "Electronics", "Other");
+    public static final Dictionary UNITS = new Dictionary("kg", "g", "liter", "pcs");
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[0];
+
+    public Dictionary(String... predefined) {
+        for (String v : predefined)
+            code(v);
+    }
+
+    // ===== Encode (adds unseen values) =====
+    public int code(String value) {
+        Integer c = codes.get(key(value));
+        return c != null ? c : add(value);
+    }
+
+    private synchronized int add(String value) {
+        String key = key(value);
+        Integer c = codes.get(key);
+        if (c != null)
+            return c;
+        String[] grown = Arrays.copyOf(values, values.length + 1);
+        int code = values.length;
+        grown[code] = value;
+        values = grown; // publish the value before the code
+        codes.put(key, code);
+        return code;
+    }
+
+    // ===== Lookup without adding; -1 if unknown =====
+    public int find(String value) {
+        if (value == null)
+            return -1;
+        Integer c = codes.get(key(value));
+        return c != null ? c : -1;
+    }
+
+    // ===== Decode =====
+    public String value(int code) {
+        return values[code];
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    // Canonical values in code order
+    public List<String> values() {
+        return new ArrayList<>(Arrays.asList(values));
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,95 @@
+package inventory;
+
+/**
+ * Items by their import identity: name (ignoring case and surrounding
+ * spaces, as in Stock), category, unit and expiry day. Used by
+ * InventoryManager.mergeAll to find the item a CSV row duplicates in expected
+ * O(1).
+ *
+ * An open-addressing table of the items themselves (linear probing, at most
+ * half full), so no key objects are stored. Items with the same identity each
+ * get their own slot; find() returns the first one.
+ *
+ * Not thread-safe: InventoryManager calls it under its lock.
+ */
+final class DuplicateIndex {
+
+    private Item[] slots = new Item[1024];
+    private int count;
+
+    // ===== Maintenance =====
+    void add(Item item) {
+        if (2 * (count + 1) > slots.length) {
+            Item[] old = slots;
+            slots = new Item[old.length * 2];
+            for (Item i : old) {
+                if (i != null)
+                    place(i);
+            }
+        }
+        place(item);
+        count++;
+    }
+
+    void remove(Item item) {
+        remove(item, hash(item));
+    }
+
+    // After an edit, given hash(item) before it. Only a changed hash moves the item.
+    void update(Item item, int oldHash) {
+        if (hash(item) != oldHash) {
+            remove(item, oldHash);
+            add(item);
+        }
+    }
+
+    private void remove(Item item, int hash) {
+        int mask = slots.length - 1;
+        int s = hash & mask;
+        while (slots[s] != null && slots[s] != item)
+            s = (s + 1) & mask;
+        if (slots[s] == null)
+            return;
+        // Backward-shift deletion, so probes never need tombstones
+        int gap = s;
+        for (int next = (gap + 1) & mask; slots[next] != null; next = (next + 1) & mask) {
+            int home = hash(slots[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                slots[gap] = slots[next];
+                gap = next;
+            }
+        }
+        slots[gap] = null;
+        count--;
+    }
+
+    // ===== Queries =====
+    // An indexed item with the same identity as row, or null
+    Item find(Item row) {
+        int mask = slots.length - 1;
+        for (int s = hash(row) & mask; slots[s] != null; s = (s + 1) & mask) {
+            Item i = slots[s];
+            if (i.getExpiryDay() == row.getExpiryDay() && i.getCategoryCode() == row.getCategoryCode()
+                    && i.getUnitCode() == row.getUnitCode() && Stock.sameProduct(i.getName(), row.getName()))
+                return i;
+        }
+        return null;
+    }
+
+    private void place(Item item) {
+        int mask = slots.length - 1;
+        int s = hash(item) & mask;
+        while (slots[s] != null)
+            s = (s + 1) & mask;
+        slots[s] = item;
+    }
+
+    static int hash(Item item) {
+        int h = Stock.hash(item.getName());
+        h = 31 * h + item.getCategoryCode();
+        h = 31 * h + item.getUnitCode();
+        h = 31 * h + item.getExpiryDay();
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
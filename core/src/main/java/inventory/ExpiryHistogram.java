@@ -0,0 +1,127 @@
+package inventory;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Item counts per expiry epoch day, used by InventoryManager for the
+ * calendar and the dashboard counters. Days in a dense window are counted in
+ * an array (one read per day for a month grid) mirrored by a Fenwick tree, so
+ * the number of items expiring in any range is two prefix sums, O(log window),
+ * and adding or removing an item is O(log window) too.
+ *
+ * The window starts around a given day and grows (doubling) towards days
+ * added outside it, up to MAX_SPAN days; days further out (placeholder dates
+ * like 9999-12-31) are counted in a small sorted map instead.
+ *
+ * Not thread-safe: InventoryManager calls it under its lock.
+ */
+final class ExpiryHistogram {
+
+    private static final int INITIAL_SPAN = 1024;
+    private static final int MAX_SPAN = 1 << 16; // ~179 years
+
+    private long origin;   // epoch day of counts[0]
+    private int[] counts;  // items per day
+    private int[] tree;    // Fenwick tree over counts, 1-based
+    private final TreeMap<Long, Integer> outliers = new TreeMap<>();
+    private int outlierTotal;
+
+    ExpiryHistogram(long centerDay) {
+        origin = centerDay - INITIAL_SPAN / 2;
+        counts = new int[INITIAL_SPAN];
+        tree = new int[INITIAL_SPAN + 1];
+    }
+
+    // ===== Maintenance =====
+    void add(long day, int delta) {
+        if (!covers(day) && !grow(day)) {
+            int n = outliers.getOrDefault(day, 0) + delta;
+            if (n == 0)
+                outliers.remove(day);
+            else
+                outliers.put(day, n);
+            outlierTotal += delta;
+            return;
+        }
+        int i = (int) (day - origin);
+        counts[i] += delta;
+        for (int j = i + 1; j < tree.length; j += j & -j)
+            tree[j] += delta;
+    }
+
+    // ===== Queries =====
+    int count(long day) {
+        return covers(day) ? counts[(int) (day - origin)] : outliers.getOrDefault(day, 0);
+    }
+
+    // Per-day counts for days consecutive days from fromDay
+    int[] counts(long fromDay, int days) {
+        int[] result = new int[days];
+        for (int d = 0; d < days; d++)
+            result[d] = count(fromDay + d);
+        return result;
+    }
+
+    // Items expiring in [fromDay, toDay]
+    int countBetween(long fromDay, long toDay) {
+        if (fromDay > toDay)
+            return 0;
+        return countUpTo(toDay) - (fromDay == Long.MIN_VALUE ? 0 : countUpTo(fromDay - 1));
+    }
+
+    // Items expiring on or before day
+    private int countUpTo(long day) {
+        int n = 0;
+        long last = Math.min(day, origin + counts.length - 1);
+        for (int j = (int) (Math.max(last - origin + 1, 0)); j > 0; j -= j & -j)
+            n += tree[j];
+        if (outlierTotal != 0) {
+            for (int c : outliers.headMap(day, true).values())
+                n += c;
+        }
+        return n;
+    }
+
+    // ===== Window =====
+    private boolean covers(long day) {
+        return day >= origin && day - origin < counts.length;
+    }
+
+    // Widens the window to take day if that keeps it within MAX_SPAN; outliers now
+    // inside the window move into it.
+    private boolean grow(long day) {
+        long from = origin, to = origin + counts.length; // [from, to)
+        while (day < from || day >= to) {
+            long span = to - from;
+            if (2 * span > MAX_SPAN)
+                return false;
+            if (day < from)
+                from -= span;
+            else
+                to += span;
+        }
+        int[] grown = new int[(int) (to - from)];
+        System.arraycopy(counts, 0, grown, (int) (origin - from), counts.length);
+        origin = from;
+        counts = grown;
+        for (Map.Entry<Long, Integer> e : outliers.subMap(from, true, to, false).entrySet()) {
+            counts[(int) (e.getKey() - from)] += e.getValue();
+            outlierTotal -= e.getValue();
+        }
+        outliers.subMap(from, true, to, false).clear();
+        rebuildTree();
+        return true;
+    }
+
+    // O(window): each node adds itself to its parent
+    private void rebuildTree() {
+        tree = new int[counts.length + 1];
+        for (int j = 1; j < tree.length; j++) {
+            tree[j] += counts[j - 1];
+            int parent = j + (j & -j);
+            if (parent < tree.length)
+                tree[parent] += tree[j];
+        }
+    }
+}
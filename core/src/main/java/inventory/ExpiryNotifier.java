@@ -0,0 +1,125 @@
+package inventory;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Raises expiry alerts while the app stays open.
+ *
+ * Status only changes at midnight, so instead of polling, the notifier asks
+ * the manager's expiry index for the next day on which any item enters the
+ * warning window or expires, and sleeps until that midnight. Everything that
+ * crosses on that day is delivered as one Transition.
+ *
+ * Lookups run on the notifier's own timer thread, so reschedule() returns at
+ * once and never waits for the manager's lock (an import holds it for a
+ * chunk at a time); only the callback runs on callbackExecutor
+ * (Platform::runLater in the app). Call reschedule() from any thread after a
+ * mutation or settings change.
+ */
+public class ExpiryNotifier {
+
+    private static final LatencyTimer SCAN_TIMER = Metrics.timer("alerts.scan");
+
+    private final InventoryManager manager;
+    private final Consumer<Transition> onTransition;
+    private final Executor callbackExecutor;
+    private final ScheduledExecutorService timer;
+
+    // Timer thread only
+    private ScheduledFuture<?> pending;
+    private long pendingDay = Long.MIN_VALUE;
+
+    public ExpiryNotifier(InventoryManager manager, Consumer<Transition> onTransition, Executor callbackExecutor) {
+        this.manager = manager;
+        this.onTransition = onTransition;
+        this.callbackExecutor = callbackExecutor;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "expiry-notifier");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // ===== Scheduling =====
+    public void reschedule() {
+        try {
+            timer.execute(this::check);
+        } catch (RejectedExecutionException e) {
+            // shut down
+        }
+    }
+
+    private void check() {
+        long today = InventoryClock.get().today();
+        if (pending != null && pendingDay <= today) {
+            // The timer overslept (e.g. the machine was suspended); deliver now
+            pending.cancel(false);
+            fire(pendingDay);
+            return;
+        }
+        scheduleAfter(today);
+    }
+
+    private void scheduleAfter(long fromDay) {
+        OptionalLong next = manager.nextTransitionDay(fromDay);
+        if (next.isPresent() && next.getAsLong() == pendingDay && pending != null && !pending.isDone())
+            return; // already waiting for that day
+        if (pending != null)
+            pending.cancel(false);
+        pending = null;
+        pendingDay = Long.MIN_VALUE;
+        if (!next.isPresent())
+            return;
+
+        long day = next.getAsLong();
+        long delay = InventoryClock.get().millisUntil(day);
+        pendingDay = day;
+        pending = timer.schedule(() -> fire(day), delay, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    // ===== Firing (on the timer thread) =====
+    private void fire(long day) {
+        if (day != pendingDay)
+            return; // superseded by a reschedule
+        pending = null;
+        pendingDay = Long.MIN_VALUE;
+        long start = System.nanoTime();
+        List<Item> expiringSoon = manager.getItemsBecomingExpiringSoonOn(day);
+        List<Item> expired = manager.getItemsBecomingExpiredOn(day);
+        SCAN_TIMER.record(start);
+        if (!expiringSoon.isEmpty() || !expired.isEmpty()) {
+            Transition transition = new Transition(day, expiringSoon, expired);
+            callbackExecutor.execute(() -> onTransition.accept(transition));
+        }
+        scheduleAfter(day);
+    }
+
+    // ===== One batched alert =====
+    public static class Transition {
+        private final long day;
+        private final List<Item> expiringSoon;
+        private final List<Item> expired;
+
+        Transition(long day, List<Item> expiringSoon, List<Item> expired) {
+            this.day = day;
+            this.expiringSoon = expiringSoon;
+            this.expired = expired;
+        }
+
+        public long getDay() { return day; }
+        public List<Item> getExpiringSoon() { return expiringSoon; }
+        public List<Item> getExpired() { return expired; }
+    }
+}
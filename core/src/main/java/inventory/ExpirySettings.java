@@ -0,0 +1,33 @@
+package inventory;
+
+/**
+ * The expiry warning window: how many days ahead an item counts as "expiring
+ * soon". One value per process, read by Item.isExpiringSoon, ExpiryStatus and
+ * every InventoryManager, so item status, row colours, the expiring lists and
+ * the dashboard counters always agree. A manager picks up a change the next
+ * time its counters are read (see InventoryManager.rollover).
+ *
+ * Held in memory only: the app loads it from the user's preferences at
+ * startup and saves it there; tests, benchmarks and the server start from
+ * the default.
+ */
+public class ExpirySettings {
+
+    public static final int DEFAULT_WARNING_DAYS = 3;
+
+    private static volatile int warningDays = DEFAULT_WARNING_DAYS;
+
+    private ExpirySettings() {
+    }
+
+    // ===== Warning Window =====
+    public static int getWarningDays() {
+        return warningDays;
+    }
+
+    public static void setWarningDays(int days) {
+        if (days < 1)
+            throw new IllegalArgumentException("Warning window must be at least one day");
+        warningDays = days;
+    }
+}
@@ -0,0 +1,46 @@
+package inventory;
+
+/**
+ * An item's expiry status, as shown by the table and the API.
+ *
+ * The day boundaries only move at midnight or when the warning window is
+ * changed, so they are computed once and cached; classifying an item is then
+ * two integer compares on its expiry day, with no date arithmetic.
+ */
+public enum ExpiryStatus {
+    OK, EXPIRING, EXPIRED;
+
+    // today .. today + warningDays, rebuilt when either input changes
+    private static volatile Window window = new Window(Long.MIN_VALUE, 0);
+
+    public static ExpiryStatus of(int expiryDay) {
+        Window w = window();
+        if (expiryDay < w.today)
+            return EXPIRED;
+        // Same rule as Item.isExpiringSoon: items expiring today are not "soon"
+        if (expiryDay > w.today && expiryDay <= w.lastWarningDay)
+            return EXPIRING;
+        return OK;
+    }
+
+    private static Window window() {
+        Window w = window;
+        long today = InventoryClock.get().today();
+        int warningDays = ExpirySettings.getWarningDays();
+        if (w.today != today || w.warningDays != warningDays)
+            window = w = new Window(today, warningDays);
+        return w;
+    }
+
+    private static final class Window {
+        final long today;
+        final int warningDays;
+        final long lastWarningDay;
+
+        Window(long today, int warningDays) {
+            this.today = today;
+            this.warningDays = warningDays;
+            this.lastWarningDay = today + warningDays;
+        }
+    }
+}
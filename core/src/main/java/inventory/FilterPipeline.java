@@ -0,0 +1,126 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Runs the table's search + category filter off the UI thread.
+ *
+ * Requests are debounced, and each one supersedes the previous: a query that
+ * finishes after a newer request was made is thrown away. When the inventory
+ * hasn't changed, the category is the same and the new search text contains
+ * the previous one, the previous result is narrowed instead of querying the
+ * whole inventory again.
+ */
+public class FilterPipeline {
+
+    private static final LatencyTimer RUN_TIMER = Metrics.timer("filter.run");
+
+    private final InventoryManager manager;
+    private final BiConsumer<List<Item>, Long> onResult;
+    private final Executor resultExecutor;
+    private final ScheduledExecutorService worker;
+    private final AtomicLong generation = new AtomicLong();
+
+    private ScheduledFuture<?> pending;
+
+    // Last completed query; only touched on the worker thread
+    private String lastQuery;
+    private String lastCategory;
+    private long lastVersion = -1;
+    private List<Item> lastResult;
+
+    // Results are handed to onResult through resultExecutor (e.g. Platform::runLater), together
+    // with the manager version when the request was made; the result reflects at least that version.
+    public FilterPipeline(InventoryManager manager, BiConsumer<List<Item>, Long> onResult,
+            Executor resultExecutor) {
+        this.manager = manager;
+        this.onResult = onResult;
+        this.resultExecutor = resultExecutor;
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "table-filter");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // ===== Request a (re)filter =====
+    public synchronized void request(String query, String category, long delayMillis) {
+        long gen = generation.incrementAndGet();
+        long version = manager.getVersion();
+        if (pending != null)
+            pending.cancel(false);
+        pending = worker.schedule(() -> run(gen, query.toLowerCase(Locale.ROOT), category, version),
+                delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    // ===== Worker side =====
+    private void run(long gen, String query, String category, long version) {
+        if (gen != generation.get())
+            return;
+        long start = System.nanoTime();
+        List<Item> result;
+        try {
+            if (canNarrow(query, category, version))
+                result = narrow(lastResult, query, gen);
+            else
+                result = manager.filter(query, category);
+        } catch (RuntimeException e) {
+            // A bug, not a race (the manager is locked): it would die silently in the
+            // executor and the table would just stop updating, so say so. The next
+            // request queries the whole inventory again.
+            System.err.println("Filtering the table for \"" + query + "\" failed: " + e);
+            e.printStackTrace();
+            lastResult = null;
+            return;
+        }
+        RUN_TIMER.record(start);
+        if (result == null || gen != generation.get())
+            return;
+
+        lastQuery = query;
+        lastCategory = category;
+        lastVersion = version;
+        lastResult = result;
+        // Results are never modified once built, so they can be handed over as is
+        List<Item> published = result;
+        resultExecutor.execute(() -> {
+            if (gen == generation.get())
+                onResult.accept(published, version);
+        });
+    }
+
+    private boolean canNarrow(String query, String category, long version) {
+        return lastResult != null
+                && version == lastVersion
+                && category.equals(lastCategory)
+                && query.contains(lastQuery);
+    }
+
+    // Returns null if a newer request arrived while narrowing.
+    private List<Item> narrow(List<Item> previous, String query, long gen) {
+        if (query.equals(lastQuery))
+            return previous;
+        List<Item> result = new ArrayList<>();
+        for (int i = 0; i < previous.size(); i++) {
+            if ((i & 4095) == 0 && gen != generation.get())
+                return null;
+            Item item = previous.get(i);
+            if (item.getName().toLowerCase(Locale.ROOT).contains(query))
+                result.add(item);
+        }
+        return result;
+    }
+}
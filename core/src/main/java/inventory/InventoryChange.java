@@ -0,0 +1,25 @@
+package inventory;
+
+/**
+ * One add / update / remove of an item, as delivered in a ChangeBatcher batch.
+ */
+public class InventoryChange {
+
+    public enum Type { ADDED, UPDATED, REMOVED }
+
+    private final Type type;
+    private final Item item;
+
+    public InventoryChange(Type type, Item item) {
+        this.type = type;
+        this.item = item;
+    }
+
+    public Type getType() { return type; }
+    public Item getItem() { return item; }
+
+    @Override
+    public String toString() {
+        return type + " " + item.getId();
+    }
+}
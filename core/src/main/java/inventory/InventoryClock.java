@@ -0,0 +1,120 @@
+package inventory;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The inventory's notion of "today", as an epoch day.
+ *
+ * Expiry checks run for every rendered row and every manager scan, so the
+ * current day is cached in a volatile field and today() is a single read.
+ * A background ticker refreshes it right after midnight, and re-checks the
+ * wall clock once a minute in case the machine slept through midnight or the
+ * clock was changed.
+ *
+ * One shared instance is used by Item and InventoryManager; tests and tools
+ * can swap in a fixed clock with setShared().
+ */
+public class InventoryClock {
+
+    private static final long RECHECK_MILLIS = 60_000;
+
+    private static final ScheduledExecutorService TICKER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "inventory-clock");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static volatile InventoryClock shared = new InventoryClock(Clock.systemDefaultZone());
+
+    private final Clock clock;
+    private final boolean ticking;
+    private volatile long today;
+    private volatile long nextMidnightMillis;
+    private ScheduledFuture<?> tick;
+    private boolean stopped;
+    private final List<Runnable> dayListeners = new CopyOnWriteArrayList<>();
+
+    public InventoryClock(Clock clock) {
+        this(clock, true);
+    }
+
+    private InventoryClock(Clock clock, boolean ticking) {
+        this.clock = clock;
+        this.ticking = ticking;
+        refresh();
+    }
+
+    // ===== Shared instance =====
+    public static InventoryClock get() {
+        return shared;
+    }
+
+    public static synchronized void setShared(InventoryClock clock) {
+        shared.stop();
+        shared = clock;
+    }
+
+    // Pinned to a single day, e.g. for deterministic tests. Never ticks.
+    public static InventoryClock fixed(LocalDate day) {
+        ZoneId zone = ZoneId.systemDefault();
+        return new InventoryClock(Clock.fixed(day.atStartOfDay(zone).toInstant(), zone), false);
+    }
+
+    // ===== Today =====
+    public long today() {
+        return today;
+    }
+
+    public LocalDate todayDate() {
+        return LocalDate.ofEpochDay(today);
+    }
+
+    // Time left until the day changes.
+    public long millisUntilNextDay() {
+        return Math.max(0, nextMidnightMillis - clock.millis());
+    }
+
+    // Time left until the start of the given epoch day (0 if already past).
+    public long millisUntil(long epochDay) {
+        long at = LocalDate.ofEpochDay(epochDay).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        return Math.max(0, at - clock.millis());
+    }
+
+    // Runs on the ticker thread whenever the day changes.
+    public void addDayListener(Runnable listener) {
+        dayListeners.add(listener);
+    }
+
+    public synchronized void stop() {
+        stopped = true;
+        if (tick != null)
+            tick.cancel(false);
+    }
+
+    // ===== Ticker =====
+    private void refresh() {
+        boolean changed;
+        synchronized (this) {
+            LocalDate now = LocalDate.now(clock);
+            changed = today != now.toEpochDay();
+            today = now.toEpochDay();
+            nextMidnightMillis = now.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+            if (ticking && !stopped) {
+                long delay = Math.min(RECHECK_MILLIS, millisUntilNextDay() + 1);
+                tick = TICKER.schedule(this::refresh, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (changed) {
+            for (Runnable listener : dayListeners)
+                listener.run();
+        }
+    }
+}
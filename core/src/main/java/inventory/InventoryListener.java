@@ -0,0 +1,15 @@
+package inventory;
+
+/**
+ * Receives every mutation applied through InventoryManager, on the thread
+ * that made it, after the manager's own indexes are updated. Callbacks run
+ * under the manager's write lock, in mutation order, so keep them short.
+ */
+public interface InventoryListener {
+
+    void itemAdded(Item item);
+
+    void itemUpdated(Item item);
+
+    void itemRemoved(Item item);
+}
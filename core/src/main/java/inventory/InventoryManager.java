@@ -0,0 +1,1050 @@
+package inventory;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * The inventory and its indexes. Safe to use from any thread: mutations take
+ * the write lock, queries the read lock. The lock is reentrant, so listeners
+ * (which run under the write lock, in mutation order) may query the manager.
+ *
+ * getSnapshot() returns an immutable, versioned view of all items without
+ * copying them: the item array is only appended to in place, and a removal
+ * copies it first if a snapshot still refers to it. One snapshot is shared by
+ * every reader until the next mutation. Items themselves are edited in place
+ * by updateItem, so a snapshot fixes which items exist, not their fields:
+ * threads that read item fields outside the lock (HTTP handlers, export
+ * workers) should read copies(...) of the items instead.
+ *
+ * Every item has a stable id. An open-addressing id -> position table makes
+ * getItem(id) and removal O(1): a removal leaves a hole in the array, and the
+ * holes are squeezed out in one pass once they make up half of it (or when a
+ * snapshot needs a hole-free array). The bulk methods (addAll, removeAll,
+ * updateAll, purgeExpired) take the lock once and bump the version once, so
+ * listeners see the whole batch back to back.
+ *
+ * Entries of the same product (name ignoring case, in compatible units) are
+ * lots of one stock: getTotals() reads a running, unit-normalized total and
+ * consume() draws lots down soonest-expiry first, O(log lots) per lot.
+ *
+ * Items are also counted per expiry day with prefix sums (ExpiryHistogram):
+ * the calendar reads a month of day counts in O(days), and counting the items
+ * expiring in any date range (the dashboard counters) takes two lookups.
+ *
+ * mergeAll() imports rows that may repeat existing items: a hash index on
+ * (name ignoring case, category, unit, expiry day) finds a row's duplicate in
+ * expected O(1), to be merged into (quantities summed) or skipped.
+ */
+public class InventoryManager {
+
+    // Latency of the bulk and query paths (see Metrics); includes waiting for the lock
+    private static final LatencyTimer ADD_ALL_TIMER = Metrics.timer("manager.addAll");
+    private static final LatencyTimer SEARCH_TIMER = Metrics.timer("manager.search");
+    private static final LatencyTimer FILTER_TIMER = Metrics.timer("manager.filter");
+    private static final LatencyTimer EXPIRING_TIMER = Metrics.timer("manager.expiring");
+    private static final LatencyTimer EXPIRED_TIMER = Metrics.timer("manager.expired");
+    private static final LatencyTimer STATS_TIMER = Metrics.timer("manager.stats");
+    private static final LatencyTimer ROLLOVER_TIMER = Metrics.timer("manager.rollover");
+    private static final LatencyTimer CONSUME_TIMER = Metrics.timer("manager.consume");
+    private static final LatencyTimer MERGE_ALL_TIMER = Metrics.timer("manager.mergeAll");
+
+    // Quantities closer than this (in base units) count as equal; absorbs float rounding
+    private static final double QUANTITY_EPSILON = 1e-9;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Insertion-ordered items in [0, end), with null holes left by removals;
+    // size counts the live ones. Copied before an in-place removal when a
+    // published snapshot shares it.
+    private Item[] items;
+    private int end;
+    private int size;
+    private boolean shared;
+
+    // id -> position in items + 1 (0 = empty slot), linear probing, at most
+    // half full; keys are read from the items themselves
+    private int[] positions;
+    private volatile Snapshot snapshot;
+
+    // Secondary index: expiry epoch day -> items expiring that day, kept in date order
+    private NavigableMap<Integer, Set<Item>> byExpiry;
+    // ...and its per-day counts with prefix sums (calendar, dashboard counters)
+    private ExpiryHistogram expiryCounts;
+
+    // Trigram index over lowercased names for substring search
+    private NameIndex nameIndex;
+
+    // Per-category buckets, indexed by Dictionary.CATEGORIES code
+    private List<Set<Item>> byCategory;
+
+    // Lots per product, each product a heap by expiry with a running total
+    private final Stock stock = new Stock();
+
+    // Items by (name ignoring case, category, unit, expiry day), for mergeAll
+    private final DuplicateIndex duplicates = new DuplicateIndex();
+
+    // Live dashboard aggregates, relative to statusDay and to the warning window
+    // (ExpirySettings) as of the last rollover
+    private volatile int warningDays;
+    private volatile long statusDay; // epoch day
+    private int expiredCount;
+    private int expiringSoonCount;
+    private double[] quantityByUnit; // by base unit code (see Units)
+
+    // Bumped on every mutation so cached query results can tell they are stale
+    private volatile long version;
+
+    private long nextId = 1;
+    private final List<InventoryListener> listeners = new CopyOnWriteArrayList<>();
+
+    public InventoryManager() {
+        items = new Item[1024];
+        positions = new int[2048];
+        byExpiry = new TreeMap<>();
+        nameIndex = new NameIndex();
+        byCategory = new ArrayList<>();
+        warningDays = ExpirySettings.getWarningDays();
+        statusDay = InventoryClock.get().today();
+        expiryCounts = new ExpiryHistogram(statusDay);
+        quantityByUnit = new double[8];
+    }
+
+    // ===== Add Item =====
+    public void addItem(Item item) {
+        lock.writeLock().lock();
+        try {
+            checkNew(item);
+            assignId(item);
+            append(item);
+            index(item);
+            version++;
+            for (InventoryListener l : listeners)
+                l.itemAdded(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Add Items in bulk =====
+    public void addAll(Collection<Item> batch) {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            for (Item item : batch)
+                checkNew(item); // before any change, so a bad batch adds nothing
+            for (Item item : batch) {
+                assignId(item);
+                append(item);
+                index(item);
+            }
+            version++;
+            for (InventoryListener l : listeners) {
+                for (Item item : batch)
+                    l.itemAdded(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+            ADD_ALL_TIMER.record(start);
+        }
+    }
+
+    // ===== Remove Item =====
+    // Returns false if the item is not (or no longer) in the inventory.
+    public boolean removeItem(Item item) {
+        return removeAll(Collections.singletonList(item)) == 1;
+    }
+
+    // ===== Remove Items in bulk =====
+    // Items not (or no longer) in the inventory are skipped; returns how many were removed.
+    public int removeAll(Collection<Item> batch) {
+        lock.writeLock().lock();
+        try {
+            List<Item> removed = new ArrayList<>(batch.size());
+            for (Item item : batch) {
+                if (positionOf(item) < 0)
+                    continue;
+                removeLocked(item);
+                removed.add(item);
+            }
+            if (removed.isEmpty())
+                return 0;
+            squeezeIfSparse();
+            version++;
+            for (InventoryListener l : listeners) {
+                for (Item item : removed)
+                    l.itemRemoved(item);
+            }
+            return removed.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Purge Expired Items =====
+    // Removes everything that expired before today as one batch; returns the count.
+    public int purgeExpired() {
+        lock.writeLock().lock();
+        try {
+            return removeAll(getExpiredItems());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== Edit Item =====
+    // Edits must go through the manager so the indexes stay in sync.
+    // Returns false if the item was removed in the meantime.
+    public boolean updateItem(Item item, String name, String category, double quantity, String unit,
+            LocalDate expiryDate) {
+        Item.checkQuantity(quantity); // before any field changes
+        Item.checkExpiryDate(expiryDate);
+        return updateAll(Collections.singletonList(item), i -> {
+            i.setName(name);
+            i.setCategory(category);
+            i.setQuantity(quantity);
+            i.setUnit(unit);
+            i.setExpiryDate(expiryDate);
+        }) == 1;
+    }
+
+    // ===== Add Items, merging duplicates =====
+    // What mergeAll does with a row matching an item already in the inventory, or
+    // one added earlier in the same batch, on name (ignoring case), category, unit
+    // and expiry day.
+    public enum Duplicates { ADD, MERGE, SKIP }
+
+    // One pass over the batch under one lock and one version bump: new rows are
+    // added, duplicates are added, merged (quantity summed into the match) or
+    // skipped per mode. Listeners see the added items, then the merged-into ones.
+    public MergeResult mergeAll(Collection<Item> batch, Duplicates mode) {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            for (Item item : batch)
+                checkNew(item); // before any change, so a bad batch adds nothing
+            List<Item> added = new ArrayList<>();
+            Set<Item> mergedInto = new LinkedHashSet<>();
+            int merged = 0, skipped = 0;
+            try {
+                for (Item row : batch) {
+                    Item match = mode == Duplicates.ADD ? null : duplicates.find(row);
+                    if (mode == Duplicates.MERGE && match != null
+                            && match.getQuantity() + row.getQuantity() > Item.MAX_QUANTITY)
+                        match = null; // the sum would be out of range: keep the row as an item of its own
+                    if (match == null) {
+                        assignId(row);
+                        append(row);
+                        index(row);
+                        added.add(row);
+                    } else if (mode == Duplicates.MERGE) {
+                        double quantity = match.getQuantity() + row.getQuantity();
+                        applyEdit(match, i -> i.setQuantity(quantity));
+                        mergedInto.add(match);
+                        merged++;
+                    } else {
+                        skipped++;
+                    }
+                }
+            } finally {
+                if (!added.isEmpty() || !mergedInto.isEmpty()) {
+                    version++;
+                    for (InventoryListener l : listeners) {
+                        for (Item item : added)
+                            l.itemAdded(item);
+                        for (Item item : mergedInto)
+                            l.itemUpdated(item);
+                    }
+                }
+            }
+            return new MergeResult(added.size(), merged, skipped);
+        } finally {
+            lock.writeLock().unlock();
+            MERGE_ALL_TIMER.record(start);
+        }
+    }
+
+    // ===== Edit Items in bulk =====
+    // Applies edit (field setters) to every item still in the inventory and re-indexes
+    // what changed; returns how many were edited. Ids are fixed and are restored if changed.
+    public int updateAll(Collection<Item> batch, Consumer<Item> edit) {
+        lock.writeLock().lock();
+        try {
+            List<Item> updated = new ArrayList<>(batch.size());
+            try {
+                for (Item item : batch) {
+                    if (positionOf(item) < 0)
+                        continue;
+                    updated.add(item);
+                    applyEdit(item, edit);
+                }
+            } finally {
+                // Also when an edit failed part way: the earlier ones did happen
+                if (!updated.isEmpty()) {
+                    version++;
+                    for (InventoryListener l : listeners) {
+                        for (Item item : updated)
+                            l.itemUpdated(item);
+                    }
+                }
+            }
+            return updated.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Moves the item between index entries for whatever the edit changed, even if it threw.
+    private void applyEdit(Item item, Consumer<Item> edit) {
+        long id = item.getId();
+        int oldDay = item.getExpiryDay();
+        String oldName = item.getName();
+        int oldCategory = item.getCategoryCode();
+        int oldUnit = item.getUnitCode();
+        double oldQuantity = item.getQuantity();
+        int oldKey = DuplicateIndex.hash(item);
+        aggregate(item, -1);
+        try {
+            edit.accept(item);
+        } finally {
+            item.setId(id);
+            stock.update(item, oldName, oldUnit, oldQuantity);
+            duplicates.update(item, oldKey);
+            if (item.getExpiryDay() != oldDay) {
+                unindexExpiry(item, oldDay);
+                indexExpiry(item);
+            }
+            if (!item.getName().equals(oldName))
+                nameIndex.update(item);
+            if (item.getCategoryCode() != oldCategory) {
+                categoryBucket(oldCategory).remove(item);
+                categoryBucket(item.getCategoryCode()).add(item);
+            }
+            aggregate(item, +1);
+        }
+    }
+
+    // ===== Stock by product =====
+    // A product is an item name, ignoring case and surrounding spaces.
+
+    // Base unit -> total quantity in stock, e.g. {kg=2.75, pcs=3.0}; O(units), no scan.
+    public Map<String, Double> getTotals(String product) {
+        lock.readLock().lock();
+        try {
+            return stock.totals(product);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The product's lots (items), soonest expiry first.
+    public List<Item> getLots(String product) {
+        lock.readLock().lock();
+        try {
+            return stock.lots(product);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Takes amount (in unit) from the product's lots in that unit's dimension, soonest
+    // expiry first: lots used up are removed, the last one drawn from keeps the rest.
+    // All or nothing: throws IllegalArgumentException if there is not enough in stock.
+    // Returns the lots drawn from, in order. O(log lots) per lot drawn from.
+    public List<Item> consume(String product, double amount, String unit) {
+        if (!Double.isFinite(amount) || amount <= 0)
+            throw new IllegalArgumentException("Amount must be a positive number");
+        int unitCode = Dictionary.UNITS.find(unit);
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            Stock.Lots lots = unitCode < 0 ? null : stock.lotsForUpdate(product, unitCode);
+            double need = Units.toBase(amount, Math.max(unitCode, 0));
+            if (lots == null || lots.total() < need - QUANTITY_EPSILON) {
+                String available = lots == null ? "no " + unit
+                        : formatQuantity(lots.total()) + " " + Dictionary.UNITS.value(lots.baseUnit);
+                throw new IllegalArgumentException("Only " + available + " of " + product + " in stock");
+            }
+            List<Item> drawn = new ArrayList<>();
+            List<Item> removed = new ArrayList<>();
+            Item reduced = null;
+            while (need > QUANTITY_EPSILON && lots.size() > 0) {
+                Item lot = lots.peek();
+                double have = Units.toBase(lot.getQuantity(), lot.getUnitCode());
+                drawn.add(lot);
+                // What would be left, back in the lot's own unit, without float noise;
+                // a lot that would round to nothing is used up rather than kept at 0
+                double left = Math.round((have - need) / Units.factor(lot.getUnitCode()) * 1e6) / 1e6;
+                if (left <= QUANTITY_EPSILON) {
+                    removeLocked(lot);
+                    removed.add(lot);
+                    need -= have;
+                } else {
+                    applyEdit(lot, i -> i.setQuantity(left));
+                    reduced = lot;
+                    need = 0;
+                }
+            }
+            squeezeIfSparse();
+            version++;
+            for (InventoryListener l : listeners) {
+                for (Item item : removed)
+                    l.itemRemoved(item);
+                if (reduced != null)
+                    l.itemUpdated(reduced);
+            }
+            return drawn;
+        } finally {
+            lock.writeLock().unlock();
+            CONSUME_TIMER.record(start);
+        }
+    }
+
+    private static String formatQuantity(double q) {
+        return q == Math.rint(q) ? Long.toString((long) q) : String.valueOf(Math.round(q * 1000) / 1000.0);
+    }
+
+    // ===== Listeners =====
+    public void addListener(InventoryListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(InventoryListener listener) {
+        listeners.remove(listener);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== Versioned snapshot of all items =====
+    // Built at most once per version, without copying the items unless removals
+    // left holes, which are squeezed out first.
+    public Snapshot getSnapshot() {
+        Snapshot s = snapshot;
+        if (s != null && s.version == version)
+            return s;
+        Lock l = end != size ? lock.writeLock() : lock.readLock();
+        l.lock();
+        try {
+            if (end == size) {
+                s = new Snapshot(version, items, size);
+                shared = true;
+            } else if (lock.isWriteLockedByCurrentThread()) {
+                resize(items.length);
+                s = new Snapshot(version, items, size);
+                shared = true;
+            } else { // a removal got in after the check above; copy rather than mutate
+                s = new Snapshot(version, liveItems(size), size);
+            }
+            snapshot = s;
+            return s;
+        } finally {
+            l.unlock();
+        }
+    }
+
+    // ===== Get All Items =====
+    // Immutable; see getSnapshot().
+    public List<Item> getAllItems() {
+        return getSnapshot();
+    }
+
+    // ===== Copies for other threads =====
+    // Detached copies with the same ids, each taken whole under the read lock, so
+    // they can be read on any thread while edits go on. O(items).
+    public List<Item> copies(List<Item> items) {
+        lock.readLock().lock();
+        try {
+            List<Item> result = new ArrayList<>(items.size());
+            for (Item item : items)
+                result.add(new Item(item));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== Look up by id; null if absent =====
+    public Item getItem(long id) {
+        lock.readLock().lock();
+        try {
+            int pos = positionOf(id);
+            return pos < 0 ? null : items[pos];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== Search Items by Name =====
+    public List<Item> searchItems(String query) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            return nameIndex.search(query);
+        } finally {
+            lock.readLock().unlock();
+            SEARCH_TIMER.record(start);
+        }
+    }
+
+    // ===== Search + Category in one pass =====
+    // An empty query or a null / "All" category matches everything.
+    public List<Item> filter(String query, String category) {
+        long start = System.nanoTime();
+        try {
+            boolean anyCategory = category == null || category.equals("All");
+            if (query.isEmpty())
+                return anyCategory ? getAllItems() : filterByCategory(category);
+            List<Item> matches = searchItems(query);
+            if (anyCategory)
+                return matches;
+            int code = Dictionary.CATEGORIES.find(category);
+            matches.removeIf(i -> i.getCategoryCode() != code);
+            return matches;
+        } finally {
+            FILTER_TIMER.record(start);
+        }
+    }
+
+    // The filter() predicate for a single item, for applying changes to a filtered view.
+    public static boolean matches(Item item, String query, String category) {
+        if (category != null && !category.equals("All")
+                && item.getCategoryCode() != Dictionary.CATEGORIES.find(category))
+            return false;
+        return query.isEmpty() || item.getName().toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT));
+    }
+
+    // ===== Filter by Category =====
+    public List<Item> filterByCategory(String category) {
+        int code = Dictionary.CATEGORIES.find(category);
+        lock.readLock().lock();
+        try {
+            if (code < 0 || code >= byCategory.size())
+                return new ArrayList<>();
+            return new ArrayList<>(byCategory.get(code));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== Per-category counts =====
+    public int countByCategory(String category) {
+        int code = Dictionary.CATEGORIES.find(category);
+        lock.readLock().lock();
+        try {
+            return code < 0 || code >= byCategory.size() ? 0 : byCategory.get(code).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Canonical category name -> item count, in dictionary order
+    public Map<String, Integer> getCategoryCounts() {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (int code = 0; code < byCategory.size(); code++) {
+                if (!byCategory.get(code).isEmpty())
+                    counts.put(Dictionary.CATEGORIES.value(code), byCategory.get(code).size());
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== Dashboard Stats =====
+    // O(categories + units); the counters are kept up to date on every mutation.
+    public Stats getStats() {
+        long start = System.nanoTime();
+        rollover(); // before the read lock: a read lock can't be upgraded
+        lock.readLock().lock();
+        try {
+            Map<String, Double> quantities = new LinkedHashMap<>();
+            for (int code = 0; code < quantityByUnit.length && code < Dictionary.UNITS.size(); code++) {
+                if (Math.abs(quantityByUnit[code]) > QUANTITY_EPSILON)
+                    quantities.put(Dictionary.UNITS.value(code), Math.round(quantityByUnit[code] * 1e6) / 1e6);
+            }
+            return new Stats(size, expiredCount, expiringSoonCount, getCategoryCounts(), quantities);
+        } finally {
+            lock.readLock().unlock();
+            STATS_TIMER.record(start);
+        }
+    }
+
+    // ===== Day Rollover =====
+    // Moves the expired / expiring-soon counters to a new day or warning window,
+    // touching only the expiry buckets that cross a threshold. Triggered by the
+    // clock's day change and also applied lazily whenever stats are read.
+    public void rollover() {
+        rollover(InventoryClock.get().today());
+    }
+
+    public void rollover(long today) {
+        int days = ExpirySettings.getWarningDays();
+        if (today == statusDay && days == warningDays)
+            return;
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            if (today == statusDay && days == warningDays)
+                return;
+            if (today > statusDay)
+                expiredCount += countExpiringBetween(statusDay, today - 1);
+            else if (today < statusDay) // clock moved backwards
+                expiredCount = countExpiringBetween(Integer.MIN_VALUE, today - 1);
+            expiringSoonCount = countExpiringBetween(today + 1, today + days);
+            warningDays = days;
+            statusDay = today;
+        } finally {
+            lock.writeLock().unlock();
+            ROLLOVER_TIMER.record(start);
+        }
+    }
+
+    // ===== Warning Window =====
+    // How many days ahead counts as "expiring soon". The window is shared with item
+    // status (see ExpirySettings); setting it here recounts only that window.
+    public int getWarningDays() {
+        return ExpirySettings.getWarningDays();
+    }
+
+    public void setWarningDays(int days) {
+        ExpirySettings.setWarningDays(days);
+        rollover();
+    }
+
+    // ===== Expiry Transitions =====
+    // First day after fromDay on which some item becomes expiring-soon or
+    // expired, or empty if nothing is left to cross. Two ceiling lookups.
+    public OptionalLong nextTransitionDay(long fromDay) {
+        int window = ExpirySettings.getWarningDays();
+        lock.readLock().lock();
+        try {
+            long next = Long.MAX_VALUE;
+            Integer soon = ceilingDay(fromDay + 1 + window);
+            if (soon != null)
+                next = soon - window;
+            Integer expires = ceilingDay(fromDay);
+            if (expires != null)
+                next = Math.min(next, expires + 1L);
+            return next == Long.MAX_VALUE ? OptionalLong.empty() : OptionalLong.of(next);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Items that enter the warning window on the given day.
+    public List<Item> getItemsBecomingExpiringSoonOn(long day) {
+        long last = day + ExpirySettings.getWarningDays();
+        return getItemsExpiringBetween(last, last);
+    }
+
+    // Items whose first expired day is the given day.
+    public List<Item> getItemsBecomingExpiredOn(long day) {
+        return getItemsExpiringBetween(day - 1, day - 1);
+    }
+
+    // ===== Get Expiring Items (within the warning window) =====
+    public List<Item> getExpiringItems() {
+        long start = System.nanoTime();
+        try {
+            return getItemsExpiringWithin(ExpirySettings.getWarningDays());
+        } finally {
+            EXPIRING_TIMER.record(start);
+        }
+    }
+
+    // ===== Optional: Get Expired Items =====
+    public List<Item> getExpiredItems() {
+        int today = (int) InventoryClock.get().today();
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            return flatten(byExpiry.headMap(today, false).values());
+        } finally {
+            lock.readLock().unlock();
+            EXPIRED_TIMER.record(start);
+        }
+    }
+
+    // ===== Items expiring 1..days days from today =====
+    public List<Item> getItemsExpiringWithin(int days) {
+        long today = InventoryClock.get().today();
+        return getItemsExpiringBetween(today + 1, today + days);
+    }
+
+    // ===== Items expiring between two dates (inclusive), ordered by expiry =====
+    public List<Item> getItemsExpiringBetween(LocalDate from, LocalDate to) {
+        return getItemsExpiringBetween(from.toEpochDay(), to.toEpochDay());
+    }
+
+    private List<Item> getItemsExpiringBetween(long fromDay, long toDay) {
+        if (fromDay > toDay || fromDay > Integer.MAX_VALUE || toDay < Integer.MIN_VALUE)
+            return new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            return flatten(byExpiry.subMap(clampDay(fromDay), true, clampDay(toDay), true).values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // byExpiry keys are int epoch days (Item rejects dates beyond them). A long day
+    // such as today + Integer.MAX_VALUE is clamped to that range, once ranges lying
+    // wholly outside it have been ruled out.
+    private static int clampDay(long day) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, day));
+    }
+
+    // First expiry day on or after day, which may lie outside the int range
+    private Integer ceilingDay(long day) {
+        return day > Integer.MAX_VALUE ? null : byExpiry.ceilingKey(clampDay(day));
+    }
+
+    // ===== Calendar =====
+    // Items expiring on each of days consecutive days from from; O(days).
+    public int[] getExpiryCounts(LocalDate from, int days) {
+        if (days < 0)
+            throw new IllegalArgumentException("days must not be negative");
+        lock.readLock().lock();
+        try {
+            return expiryCounts.counts(from.toEpochDay(), days);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of items expiring between two dates (inclusive); two prefix sums.
+    public int countExpiringBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return expiryCounts.countBetween(from.toEpochDay(), to.toEpochDay());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Items expiring on one day, in the order they were added: just that day's bucket.
+    public List<Item> getItemsExpiringOn(LocalDate day) {
+        lock.readLock().lock();
+        try {
+            long d = day.toEpochDay();
+            Set<Item> bucket = d == clampDay(d) ? byExpiry.get((int) d) : null; // no item is that far out
+            return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== Item array (write lock held) =====
+    private void append(Item item) {
+        if (end == items.length)
+            resize(size <= items.length / 2 ? items.length : items.length * 2); // squeeze holes or grow
+        items[end] = item; // beyond every published snapshot's size
+        putPosition(item.getId(), end);
+        end++;
+        size++;
+    }
+
+    // Removes an item that is in the inventory; the caller bumps the version and notifies.
+    private void removeLocked(Item item) {
+        if (shared)
+            resize(items.length); // copy once per batch, not per removal
+        removeAt(positionOf(item));
+        unindex(item);
+    }
+
+    private void squeezeIfSparse() {
+        if (end - size > end / 2)
+            resize(items.length);
+    }
+
+    private void removeAt(int pos) {
+        removePosition(items[pos].getId());
+        items[pos] = null;
+        size--;
+    }
+
+    // Moves the live items, in order, into a new array (never shared, no holes)
+    // and rebuilds the id table for their new positions.
+    private void resize(int capacity) {
+        items = liveItems(Math.max(capacity, 1024));
+        end = size;
+        shared = false;
+        positions = new int[Integer.highestOneBit(items.length * 2 - 1) * 2];
+        for (int i = 0; i < end; i++)
+            putPosition(items[i].getId(), i);
+    }
+
+    private Item[] liveItems(int capacity) {
+        Item[] live = new Item[capacity];
+        int n = 0;
+        for (int i = 0; i < end; i++) {
+            if (items[i] != null)
+                live[n++] = items[i];
+        }
+        return live;
+    }
+
+    // Stored items keep their id, so two items must never share one.
+    private void checkNew(Item item) {
+        if (item.getId() != 0 && positionOf(item.getId()) >= 0)
+            throw new IllegalArgumentException("An item with id " + item.getId() + " is already in the inventory");
+    }
+
+    // ===== Id high-water mark =====
+    // The id the next new item gets. Stored by InventoryStore, so that the ids of
+    // removed items are never handed out again, not even after a restart.
+    public long getNextId() {
+        lock.readLock().lock();
+        try {
+            return nextId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Raises the next id to at least next; never lowers it.
+    public void advanceNextId(long next) {
+        lock.writeLock().lock();
+        try {
+            nextId = Math.max(nextId, next);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Items loaded from storage keep their id; new ones get the next free id.
+    private void assignId(Item item) {
+        if (item.getId() == 0)
+            item.setId(nextId++);
+        else if (item.getId() >= nextId)
+            nextId = item.getId() + 1;
+    }
+
+    // ===== Id table (linear probing; keys are the ids of the items pointed to) =====
+    // Position of this very item, or -1 if it is not in the inventory.
+    private int positionOf(Item item) {
+        int pos = positionOf(item.getId());
+        return pos >= 0 && items[pos] == item ? pos : -1;
+    }
+
+    private int positionOf(long id) {
+        int mask = positions.length - 1;
+        for (int s = hash(id) & mask; positions[s] != 0; s = (s + 1) & mask) {
+            if (items[positions[s] - 1].getId() == id)
+                return positions[s] - 1;
+        }
+        return -1;
+    }
+
+    private void putPosition(long id, int pos) {
+        int mask = positions.length - 1;
+        int s = hash(id) & mask;
+        while (positions[s] != 0)
+            s = (s + 1) & mask;
+        positions[s] = pos + 1;
+    }
+
+    // Backward-shift deletion, so probes never need tombstones
+    private void removePosition(long id) {
+        int mask = positions.length - 1;
+        int s = hash(id) & mask;
+        while (items[positions[s] - 1].getId() != id)
+            s = (s + 1) & mask;
+        int gap = s;
+        for (int next = (gap + 1) & mask; positions[next] != 0; next = (next + 1) & mask) {
+            int home = hash(items[positions[next] - 1].getId()) & mask;
+            // move the entry back if its home is not in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                positions[gap] = positions[next];
+                gap = next;
+            }
+        }
+        positions[gap] = 0;
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // ===== Index maintenance =====
+    private void index(Item item) {
+        indexExpiry(item);
+        nameIndex.add(item);
+        categoryBucket(item.getCategoryCode()).add(item);
+        stock.add(item);
+        duplicates.add(item);
+        aggregate(item, +1);
+    }
+
+    private void unindex(Item item) {
+        unindexExpiry(item);
+        nameIndex.remove(item);
+        categoryBucket(item.getCategoryCode()).remove(item);
+        stock.remove(item);
+        duplicates.remove(item);
+        aggregate(item, -1);
+    }
+
+    // Adds (sign = +1) or removes (sign = -1) an item's share of the dashboard counters.
+    private void aggregate(Item item, int sign) {
+        long days = item.getExpiryDay() - statusDay;
+        if (days < 0)
+            expiredCount += sign;
+        else if (days >= 1 && days <= warningDays)
+            expiringSoonCount += sign;
+        int unit = Units.base(item.getUnitCode());
+        if (unit >= quantityByUnit.length)
+            quantityByUnit = Arrays.copyOf(quantityByUnit, Math.max(unit + 1, quantityByUnit.length * 2));
+        quantityByUnit[unit] += sign * Units.toBase(item.getQuantity(), item.getUnitCode());
+    }
+
+    private int countExpiringBetween(long fromDay, long toDay) {
+        if (fromDay > toDay)
+            return 0;
+        return expiryCounts.countBetween(fromDay, toDay);
+    }
+
+    // ===== Expiry index helpers =====
+    private void indexExpiry(Item item) {
+        if (byExpiry.computeIfAbsent(item.getExpiryDay(), d -> new LinkedHashSet<>()).add(item))
+            expiryCounts.add(item.getExpiryDay(), +1);
+    }
+
+    private void unindexExpiry(Item item) {
+        unindexExpiry(item, item.getExpiryDay());
+    }
+
+    private void unindexExpiry(Item item, int day) {
+        Set<Item> bucket = byExpiry.get(day);
+        if (bucket != null) {
+            if (bucket.remove(item))
+                expiryCounts.add(day, -1);
+            if (bucket.isEmpty())
+                byExpiry.remove(day);
+        }
+    }
+
+    // ===== Category bucket helpers =====
+    private Set<Item> categoryBucket(int code) {
+        while (byCategory.size() <= code)
+            byCategory.add(new LinkedHashSet<>());
+        return byCategory.get(code);
+    }
+
+    private static List<Item> flatten(Collection<Set<Item>> buckets) {
+        List<Item> result = new ArrayList<>();
+        for (Set<Item> bucket : buckets)
+            result.addAll(bucket);
+        return result;
+    }
+
+    // ===== Immutable view of the items at one version =====
+    public static class Snapshot extends AbstractList<Item> implements RandomAccess {
+        private final long version;
+        private final Item[] items;
+        private final int size;
+
+        Snapshot(long version, Item[] items, int size) {
+            this.version = version;
+            this.items = items;
+            this.size = size;
+        }
+
+        public long getVersion() { return version; }
+
+        @Override
+        public Item get(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+            return items[index];
+        }
+
+        @Override
+        public int size() { return size; }
+    }
+
+    // ===== Outcome of mergeAll =====
+    public static class MergeResult {
+        public static final MergeResult NONE = new MergeResult(0, 0, 0);
+
+        private final int inserted;
+        private final int merged;
+        private final int skipped;
+
+        MergeResult(int inserted, int merged, int skipped) {
+            this.inserted = inserted;
+            this.merged = merged;
+            this.skipped = skipped;
+        }
+
+        public int getInserted() { return inserted; }
+        public int getMerged() { return merged; }
+        public int getSkipped() { return skipped; }
+
+        // Totals of a batch merged in several calls
+        public MergeResult plus(MergeResult other) {
+            return new MergeResult(inserted + other.inserted, merged + other.merged, skipped + other.skipped);
+        }
+
+        @Override
+        public String toString() {
+            return inserted + " inserted, " + merged + " merged, " + skipped + " skipped";
+        }
+    }
+
+    // ===== Dashboard snapshot =====
+    public static class Stats {
+        private final int total;
+        private final int expired;
+        private final int expiringSoon;
+        private final Map<String, Integer> byCategory;
+        private final Map<String, Double> quantityByUnit;
+
+        Stats(int total, int expired, int expiringSoon, Map<String, Integer> byCategory,
+                Map<String, Double> quantityByUnit) {
+            this.total = total;
+            this.expired = expired;
+            this.expiringSoon = expiringSoon;
+            this.byCategory = byCategory;
+            this.quantityByUnit = quantityByUnit;
+        }
+
+        public int getTotal() { return total; }
+        public int getExpired() { return expired; }
+        public int getExpiringSoon() { return expiringSoon; }
+        public int getSafe() { return total - expired - expiringSoon; }
+        public Map<String, Integer> getByCategory() { return byCategory; }
+        public Map<String, Double> getQuantityByUnit() { return quantityByUnit; }
+    }
+}
@@ -0,0 +1,257 @@
+package inventory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local persistence for an InventoryManager: snapshots plus a journal.
+ *
+ * The directory holds snapshot-N.bin (the full inventory as of the start of
+ * generation N, possibly with some of its edits, in SnapshotFormat) and
+ * journal-N.log (every mutation made during generation N). Startup loads the
+ * newest snapshot and replays the journals from that generation on. Once the
+ * current journal has grown past the live item count (and a floor), it is
+ * compacted: a new generation's journal is started immediately, and the
+ * snapshot for it is taken and written in the background; older files are
+ * deleted only after that snapshot is durable.
+ *
+ * One process at a time: load() takes an exclusive lock on store.lock in the
+ * directory and fails fast if another process (the app or a server) holds it.
+ */
+public class InventoryStore implements InventoryListener, AutoCloseable {
+
+    private static final long MIN_COMPACT_RECORDS = 50_000;
+    private static final int COPY_CHUNK = 4096;
+    private static final LatencyTimer LOAD_TIMER = Metrics.timer("store.load");
+    private static final LatencyTimer COMPACT_TIMER = Metrics.timer("store.compact");
+
+    private final Path dir;
+    private final ExecutorService background;
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private InventoryManager manager;
+    private Journal journal;
+    private long generation;
+    private volatile boolean compacting;
+    private long recoveryMillis;
+    private long replayedRecords;
+
+    public InventoryStore(Path dir) {
+        this.dir = dir;
+        this.background = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "inventory-store");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".home-inventory");
+    }
+
+    // ===== Recovery =====
+    // Loads the stored inventory into an empty manager and starts journaling its mutations.
+    public void load(InventoryManager manager) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(dir);
+        lock();
+        TreeSet<Long> snapshots = generations("snapshot-", ".bin");
+        TreeSet<Long> journals = generations("journal-", ".log");
+
+        generation = snapshots.isEmpty() ? 0 : snapshots.last();
+        Map<Long, Item> state = new LinkedHashMap<>();
+        long[] nextId = { 1 }; // above every id in the snapshot or any journal record, removals included
+        if (!snapshots.isEmpty()) {
+            SnapshotFormat.Contents contents = SnapshotFormat.read(snapshot(generation));
+            for (Item item : contents.getItems())
+                state.put(item.getId(), item);
+            nextId[0] = contents.getNextId();
+        }
+
+        replayedRecords = 0;
+        long current = generation;
+        for (long g : journals.tailSet(generation, true)) {
+            Journal.replay(journal(g), r -> {
+                replayedRecords++;
+                nextId[0] = Math.max(nextId[0], r.id + 1);
+                if (r.type == Journal.REMOVE)
+                    state.remove(r.id);
+                else if (r.type == Journal.ADD || state.containsKey(r.id))
+                    state.put(r.id, r.toItem()); // updates keep the original position
+            });
+            current = g;
+        }
+        generation = current;
+
+        manager.addAll(state.values());
+        manager.advanceNextId(nextId[0]);
+        this.manager = manager;
+        journal = Journal.open(journal(generation));
+        manager.addListener(this);
+        deleteOlderThan(snapshots.isEmpty() ? 0 : snapshots.last());
+        recoveryMillis = (System.nanoTime() - start) / 1_000_000;
+        LOAD_TIMER.record(start);
+    }
+
+    private void lock() throws IOException {
+        lockChannel = FileChannel.open(dir.resolve("store.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null; // held by another store in this JVM
+        }
+        if (lock == null) {
+            lockChannel.close();
+            lockChannel = null;
+            throw new IOException("The inventory in " + dir + " is in use by another process");
+        }
+    }
+
+    public long getRecoveryMillis() {
+        return recoveryMillis;
+    }
+
+    public long getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    // ===== Journaling (called on the manager's thread) =====
+    @Override
+    public void itemAdded(Item item) {
+        journal.append(Journal.ADD, item);
+        compactIfNeeded();
+    }
+
+    @Override
+    public void itemUpdated(Item item) {
+        journal.append(Journal.UPDATE, item);
+        compactIfNeeded();
+    }
+
+    @Override
+    public void itemRemoved(Item item) {
+        journal.append(Journal.REMOVE, item);
+        compactIfNeeded();
+    }
+
+    // ===== Compaction =====
+    private void compactIfNeeded() {
+        long records = journal.getRecords();
+        if (!compacting && records >= MIN_COMPACT_RECORDS && records >= manager.size())
+            compact();
+    }
+
+    // Rotates to a new generation now; the snapshot is taken and written in the
+    // background, so a mutation that triggers compaction (under the manager's
+    // write lock) only pays for opening the new journal.
+    public void compact() {
+        if (compacting)
+            return;
+        compacting = true;
+        Journal previous = journal;
+        long next = generation + 1;
+        try {
+            journal = Journal.open(journal(next));
+        } catch (IOException e) {
+            compacting = false;
+            throw new IllegalStateException("Could not start journal " + next, e);
+        }
+        generation = next;
+        background.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                previous.close();
+                List<Journal.Record> rows = copyRows();
+                long nextId = manager.getNextId(); // after the rows, so it is above all their ids
+                SnapshotFormat.write(snapshot(next), rows, nextId);
+                deleteOlderThan(next);
+            } catch (IOException e) {
+                // Older snapshot + journals are still on disk; the next compaction retries
+                System.err.println("Compaction to generation " + next + " failed: " + e);
+            } finally {
+                compacting = false;
+                COMPACT_TIMER.record(start);
+            }
+        });
+    }
+
+    // Plain field copies of the items, taken after the journal switch a chunk at a
+    // time, so writers wait for one chunk at most. A row may already include edits
+    // made after the switch; those are in the new journal too, and replaying a
+    // record onto a row that has it already gives the same row.
+    private List<Journal.Record> copyRows() {
+        List<Item> items = manager.getAllItems();
+        List<Journal.Record> rows = new ArrayList<>(items.size());
+        for (int from = 0; from < items.size(); from += COPY_CHUNK) {
+            for (Item copy : manager.copies(items.subList(from, Math.min(from + COPY_CHUNK, items.size()))))
+                rows.add(Journal.Record.of(copy));
+        }
+        return rows;
+    }
+
+    // ===== Shutdown =====
+    @Override
+    public void close() throws IOException {
+        if (manager != null)
+            manager.removeListener(this);
+        background.shutdown();
+        try {
+            background.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (journal != null)
+                journal.close();
+        } finally {
+            if (lockChannel != null)
+                lockChannel.close(); // releases the lock
+        }
+    }
+
+    // ===== File naming =====
+    private Path snapshot(long gen) {
+        return dir.resolve("snapshot-" + gen + ".bin");
+    }
+
+    private Path journal(long gen) {
+        return dir.resolve("journal-" + gen + ".log");
+    }
+
+    private TreeSet<Long> generations(String prefix, String suffix) throws IOException {
+        TreeSet<Long> gens = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, prefix + "*" + suffix)) {
+            for (Path f : files) {
+                String name = f.getFileName().toString();
+                try {
+                    gens.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // not ours
+                }
+            }
+        }
+        return gens;
+    }
+
+    private void deleteOlderThan(long gen) throws IOException {
+        for (long g : generations("snapshot-", ".bin").headSet(gen))
+            Files.deleteIfExists(snapshot(g));
+        for (long g : generations("journal-", ".log").headSet(gen))
+            Files.deleteIfExists(journal(g));
+    }
+}
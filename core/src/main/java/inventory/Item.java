@@ -0,0 +1,114 @@
+package inventory;
+
+import java.time.LocalDate;
+
+public class Item {
+    private long id;         // assigned by InventoryManager, stable across restarts
+    private String name;
+    private int category;    // Dictionary.CATEGORIES code
+    private double quantity; // numeric value
+    private int unit;        // Dictionary.UNITS code: "kg", "g", etc.
+    private int expiryDay;   // epoch day
+    int lotSlot;             // position in its product's lot heap (Stock), managed by the manager
+
+    public Item(String name, String category, double quantity, String unit, LocalDate expiryDate) {
+        this.name = name;
+        this.category = Dictionary.CATEGORIES.code(category);
+        this.quantity = checkQuantity(quantity);
+        this.unit = Dictionary.UNITS.code(unit);
+        this.expiryDay = checkExpiryDate(expiryDate);
+    }
+
+    // A stored row whose category and unit are already Dictionary codes; see SnapshotFormat
+    Item(long id, String name, int category, double quantity, int unit, int expiryDay) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.quantity = quantity;
+        this.unit = unit;
+        this.expiryDay = expiryDay;
+    }
+
+    // A detached copy with the same id; see InventoryManager.copies
+    Item(Item other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.category = other.category;
+        this.quantity = other.quantity;
+        this.unit = other.unit;
+        this.expiryDay = other.expiryDay;
+    }
+
+    // ===== Getters & Setters =====
+    public long getId() { return id; }
+    void setId(long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getCategory() { return Dictionary.CATEGORIES.value(category); }
+    public void setCategory(String category) { this.category = Dictionary.CATEGORIES.code(category); }
+    public int getCategoryCode() { return category; }
+
+    public double getQuantity() { return quantity; }
+    public void setQuantity(double quantity) { this.quantity = checkQuantity(quantity); }
+
+    public String getUnit() { return Dictionary.UNITS.value(unit); }
+    public void setUnit(String unit) { this.unit = Dictionary.UNITS.code(unit); }
+    public int getUnitCode() { return unit; }
+
+    public LocalDate getExpiryDate() { return LocalDate.ofEpochDay(expiryDay); }
+    public void setExpiryDate(LocalDate expiryDate) { this.expiryDay = checkExpiryDate(expiryDate); }
+    public int getExpiryDay() { return expiryDay; }
+
+    // ===== Quantity & date checks =====
+    // NaN, infinite or negative quantities would corrupt the per-unit totals for good;
+    // the upper bound keeps any sum of quantities finite too.
+    public static final double MAX_QUANTITY = 1e12;
+
+    static double checkQuantity(double quantity) {
+        if (!(quantity >= 0 && quantity <= MAX_QUANTITY))
+            throw new IllegalArgumentException("Quantity must be a number from 0 to " + (long) MAX_QUANTITY
+                    + ", not " + quantity);
+        return quantity;
+    }
+
+    // Expiry dates are stored as int epoch days: years -5877641 to 5881580. LocalDate
+    // goes further (to year 999999999), and such a date must fail as bad input.
+    static int checkExpiryDate(LocalDate expiryDate) {
+        long day = expiryDate.toEpochDay();
+        if (day < Integer.MIN_VALUE || day > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Expiry date out of range: " + expiryDate);
+        return (int) day;
+    }
+
+    // Rows saved before quantities were checked load with 0 instead of failing the load.
+    static double loadedQuantity(double quantity) {
+        return quantity >= 0 && quantity <= MAX_QUANTITY ? quantity : 0;
+    }
+
+    // ===== Display Quantity for Table =====
+    public String getDisplayQuantity() {
+        return getQuantity() + " " + getUnit();
+    }
+
+    // ===== Expiry Checks =====
+    // "Today" comes from the shared InventoryClock, so these are integer compares.
+    public boolean isExpired() {
+        return getExpiryDay() < InventoryClock.get().today();
+    }
+
+    public boolean isExpiringSoon() {
+        long days = daysToExpiry();
+        return days > 0 && days <= ExpirySettings.getWarningDays();
+    }
+
+    // Both checks at once, against the day boundaries cached by ExpiryStatus
+    public ExpiryStatus getStatus() {
+        return ExpiryStatus.of(getExpiryDay());
+    }
+
+    public long daysToExpiry() {
+        return getExpiryDay() - InventoryClock.get().today();
+    }
+}
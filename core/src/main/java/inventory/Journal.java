@@ -0,0 +1,284 @@
+package inventory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of inventory mutations.
+ *
+ * Each record is framed as [length][crc32][payload] so a torn write at the
+ * tail is detected on replay and cut off. append() only encodes into an
+ * in-memory buffer; a background flusher writes the buffer out and fsyncs it
+ * every FLUSH_MILLIS, so many mutations share one fsync (group commit) and the
+ * caller normally never waits on the disk. If the disk falls MAX_PENDING_BYTES
+ * behind, append() flushes inline instead of buffering more.
+ *
+ * A failed write or fsync is final: the records in that batch may be lost, so
+ * every later append() and flush() throws instead of buffering edits that can
+ * never reach the file.
+ */
+public class Journal implements Closeable {
+
+    public static final byte ADD = 1;
+    public static final byte UPDATE = 2;
+    public static final byte REMOVE = 3;
+
+    private static final long FLUSH_MILLIS = 50;
+    private static final int MAX_PENDING_BYTES = 8 << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ScheduledExecutorService flusher;
+
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(1 << 16);
+    private final ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+    private final DataOutputStream payloadOut = new DataOutputStream(payload);
+    private final CRC32 crc = new CRC32();
+    private long records;
+    private IOException failure;
+    private IOException failureLogged; // flusher thread only
+
+    private Journal(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "journal-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // Opens (or creates) a journal for appending, after cutting off any torn tail.
+    public static Journal open(Path file) throws IOException {
+        long[] existing = new long[1];
+        long valid = Files.exists(file) ? replay(file, r -> existing[0]++) : 0;
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(valid);
+        channel.position(valid);
+        Journal journal = new Journal(file, channel);
+        journal.records = existing[0];
+        return journal;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // ===== Append =====
+    // Throws IllegalStateException once a flush has failed.
+    public void append(byte type, Item item) {
+        synchronized (this) {
+            checkFailure();
+            encode(type, item);
+            if (pending.size() < MAX_PENDING_BYTES)
+                return;
+        }
+        try {
+            flush(); // the flusher is falling behind; wait for the disk rather than grow
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write journal " + file, e);
+        }
+    }
+
+    private void encode(byte type, Item item) {
+        payload.reset();
+        try {
+            payloadOut.writeByte(type);
+            payloadOut.writeLong(item.getId());
+            if (type != REMOVE) {
+                writeString(payloadOut, item.getName());
+                writeString(payloadOut, item.getCategory());
+                payloadOut.writeDouble(item.getQuantity());
+                writeString(payloadOut, item.getUnit());
+                payloadOut.writeInt(item.getExpiryDay());
+            }
+            crc.reset();
+            crc.update(payload.toByteArray());
+            DataOutputStream out = new DataOutputStream(pending);
+            out.writeInt(payload.size());
+            out.writeInt((int) crc.getValue());
+            payload.writeTo(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory streams don't fail
+        }
+        records++;
+    }
+
+    // Length-prefixed UTF-8 like SnapshotFormat; writeUTF would fail past 64 KB,
+    // and by then the manager has already applied the change.
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available())
+            throw new IOException("Corrupt journal record");
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Records in this journal, including those already on disk when it was opened.
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    private void checkFailure() {
+        if (failure != null)
+            throw new IllegalStateException("Journal " + file + " failed; edits are no longer saved", failure);
+    }
+
+    // ===== Flush =====
+    // Writes and fsyncs everything appended so far.
+    public void flush() throws IOException {
+        synchronized (channel) { // keeps batches in append order
+            ByteArrayOutputStream batch;
+            synchronized (this) {
+                if (failure != null)
+                    throw failure;
+                if (pending.size() == 0)
+                    return;
+                batch = pending;
+                pending = new ByteArrayOutputStream(1 << 16);
+            }
+            try {
+                ByteBuffer buf = ByteBuffer.wrap(batch.toByteArray());
+                while (buf.hasRemaining())
+                    channel.write(buf);
+                channel.force(false);
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    pending = new ByteArrayOutputStream(); // nothing more can be written after the gap
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            // Recorded by flush(); the next append() throws. Logged once, when it happens.
+            if (e == failureLogged)
+                return;
+            failureLogged = e;
+            System.err.println("Journal " + file + " failed: " + e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // ===== Replay =====
+    // Feeds every intact record to the consumer and returns the byte length of
+    // the valid prefix; replay stops at the first truncated or corrupt record.
+    public static long replay(Path file, Consumer<Record> consumer) throws IOException {
+        long valid = 0;
+        long size = Files.size(file);
+        CRC32 check = new CRC32();
+        try (InputStream raw = Files.newInputStream(file);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16))) {
+            while (true) {
+                int length;
+                int expected;
+                byte[] body;
+                try {
+                    length = in.readInt();
+                    expected = in.readInt();
+                    if (length <= 0 || length > size - valid - 8)
+                        break; // torn, or not a length at all
+                    body = new byte[length];
+                    in.readFully(body);
+                } catch (EOFException e) {
+                    break;
+                }
+                check.reset();
+                check.update(body);
+                if ((int) check.getValue() != expected)
+                    break;
+                consumer.accept(Record.decode(body));
+                valid += 8 + length;
+            }
+        }
+        return valid;
+    }
+
+    // ===== Decoded record =====
+    public static class Record {
+        public final byte type;
+        public final long id;
+        public final String name;
+        public final String category;
+        public final double quantity;
+        public final String unit;
+        public final int expiryDay;
+
+        private Record(byte type, long id, String name, String category, double quantity, String unit,
+                int expiryDay) {
+            this.type = type;
+            this.id = id;
+            this.name = name;
+            this.category = category;
+            this.quantity = quantity;
+            this.unit = unit;
+            this.expiryDay = expiryDay;
+        }
+
+        static Record of(Item item) {
+            return new Record(UPDATE, item.getId(), item.getName(), item.getCategory(), item.getQuantity(),
+                    item.getUnit(), item.getExpiryDay());
+        }
+
+        static Record decode(byte[] body) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            byte type = in.readByte();
+            long id = in.readLong();
+            if (type == REMOVE)
+                return new Record(type, id, null, null, 0, null, 0);
+            return new Record(type, id, readString(in), readString(in), in.readDouble(), readString(in), in.readInt());
+        }
+
+        public Item toItem() {
+            Item item = new Item(name, category, Item.loadedQuantity(quantity), unit, LocalDate.ofEpochDay(expiryDay));
+            item.setId(id);
+            return item;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call counter and latency histogram for one operation; get one with
+ * Metrics.timer(name).
+ *
+ *   long start = System.nanoTime();
+ *   try { ... } finally { TIMER.record(start); }
+ *
+ * Recording is a nanoTime read and four lock-free adds, so it can wrap any
+ * operation that does real work. The histogram is log-linear: exact below
+ * 8 ns, then every power of two split into 8 steps, so a percentile is off
+ * by at most 12.5% with a fixed 488 buckets and no allocation.
+ */
+public class LatencyTimer implements LatencyTimerMXBean {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    LatencyTimer(String name) {
+        this.name = name;
+    }
+
+    // ===== Recording =====
+    public void record(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    public void recordNanos(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        buckets.incrementAndGet(bucket(nanos));
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos < SUB)
+            return (int) nanos;
+        int msb = 63 - Long.numberOfLeadingZeros(nanos);
+        return (msb - SUB_BITS + 1) * SUB + (int) ((nanos >>> (msb - SUB_BITS)) & (SUB - 1));
+    }
+
+    private static long lowerBound(int bucket) {
+        if (bucket < SUB)
+            return bucket;
+        int msb = bucket / SUB + SUB_BITS - 1;
+        return (long) (SUB + bucket % SUB) << (msb - SUB_BITS);
+    }
+
+    // ===== Reading =====
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getTotalMillis() {
+        return totalNanos.sum() / 1e6;
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / 1e6 / n;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return percentileNanos(50) / 1e6;
+    }
+
+    @Override
+    public double getP90Millis() {
+        return percentileNanos(90) / 1e6;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return percentileNanos(99) / 1e6;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return percentileNanos(99.9) / 1e6;
+    }
+
+    // Midpoint of the bucket holding the p-th percentile, capped at the max seen.
+    public long percentileNanos(double p) {
+        long[] counts = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            n += counts[i] = buckets.get(i);
+        if (n == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(p / 100 * n));
+        for (int i = 0; i < BUCKETS; i++) {
+            rank -= counts[i];
+            if (rank <= 0) {
+                long low = lowerBound(i);
+                long high = i + 1 < BUCKETS ? lowerBound(i + 1) - 1 : Long.MAX_VALUE;
+                return Math.min(low + (high - low) / 2, maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    // Not atomic with respect to concurrent record() calls; meant for a quiet moment.
+    @Override
+    public void reset() {
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        for (int i = 0; i < BUCKETS; i++)
+            buckets.set(i, 0);
+    }
+}
@@ -0,0 +1,28 @@
+package inventory;
+
+/**
+ * JMX view of a LatencyTimer (registered as inventory:type=Timer,name=...).
+ * Values are cumulative since start or the last reset; times are milliseconds.
+ */
+public interface LatencyTimerMXBean {
+
+    String getName();
+
+    long getCount();
+
+    double getTotalMillis();
+
+    double getMeanMillis();
+
+    double getMaxMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    void reset();
+}
@@ -0,0 +1,138 @@
+package inventory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide registry of LatencyTimers. Every timer is also registered with
+ * the platform MBean server as inventory:type=Timer,name=<name>, so
+ * jconsole / VisualVM / any JMX client can read counts and percentiles of a
+ * running app or server.
+ *
+ * startReporting() additionally appends every timer to a CSV file (and/or
+ * prints it) at a fixed period, for comparing runs over time. The file only
+ * grows, so callers turn this on explicitly.
+ *
+ * Timer names are "<area>.<operation>", e.g. manager.search, csv.import,
+ * ui.dashboard.
+ */
+public final class Metrics {
+
+    private static final String CSV_HEADER = "time,timer,count,total_ms,mean_ms,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private static final Map<String, LatencyTimer> TIMERS = new TreeMap<>();
+
+    private static ScheduledExecutorService reporter;
+    private static Path reportCsv;
+    private static boolean reportLog;
+
+    private Metrics() {
+    }
+
+    // ===== Timers =====
+    public static synchronized LatencyTimer timer(String name) {
+        LatencyTimer timer = TIMERS.get(name);
+        if (timer == null) {
+            timer = new LatencyTimer(name);
+            TIMERS.put(name, timer);
+            register(timer);
+        }
+        return timer;
+    }
+
+    public static synchronized List<LatencyTimer> timers() {
+        return new ArrayList<>(TIMERS.values());
+    }
+
+    private static void register(LatencyTimer timer) {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(timer, new ObjectName("inventory:type=Timer,name=" + timer.getName()));
+        } catch (JMException e) {
+            // e.g. a second copy of these classes in another class loader; the timer still works
+            System.err.println("Could not register metrics for " + timer.getName() + ": " + e.getMessage());
+        }
+    }
+
+    // ===== Periodic Report =====
+    // Appends one CSV row per used timer every periodSeconds (values are cumulative;
+    // csv may be null) and, if log is set, prints a summary line per timer to stdout.
+    public static synchronized void startReporting(Path csv, long periodSeconds, boolean log) {
+        stopReporting();
+        reportCsv = csv;
+        reportLog = log;
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "inventory-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(Metrics::report, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    // Stops the periodic report after writing a final one, e.g. on shutdown.
+    public static synchronized void stopReporting() {
+        if (reporter == null)
+            return;
+        reporter.shutdownNow();
+        reporter = null;
+        report();
+    }
+
+    private static void report() {
+        Path csv;
+        boolean log;
+        synchronized (Metrics.class) {
+            csv = reportCsv;
+            log = reportLog;
+        }
+        String time = LocalDateTime.now().format(TIME);
+        List<String> rows = new ArrayList<>();
+        for (LatencyTimer t : timers()) {
+            if (t.getCount() == 0)
+                continue;
+            rows.add(String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f", time, t.getName(),
+                    t.getCount(), t.getTotalMillis(), t.getMeanMillis(), t.getP50Millis(), t.getP90Millis(),
+                    t.getP99Millis(), t.getP999Millis(), t.getMaxMillis()));
+            if (log)
+                System.out.printf(Locale.ROOT, "[metrics] %-22s count=%d mean=%.3fms p99=%.3fms max=%.3fms%n",
+                        t.getName(), t.getCount(), t.getMeanMillis(), t.getP99Millis(), t.getMaxMillis());
+        }
+        if (csv == null || rows.isEmpty())
+            return;
+        try {
+            boolean fresh = !Files.exists(csv) || Files.size(csv) == 0;
+            if (csv.getParent() != null)
+                Files.createDirectories(csv.getParent());
+            try (BufferedWriter out = Files.newBufferedWriter(csv, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND)) {
+                if (fresh) {
+                    out.write(CSV_HEADER);
+                    out.newLine();
+                }
+                for (String row : rows) {
+                    out.write(row);
+                    out.newLine();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write metrics to " + csv + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Trigram inverted index over item names, used by InventoryManager.searchItems.
+ * Names are lowercased once when an item is indexed. A substring query of
+ * three or more characters intersects the posting lists of its trigrams and
+ * only verifies the surviving candidates; shorter queries scan the cached
+ * lowercase names.
+ *
+ * Every indexed item gets a slot number; posting lists hold slots in
+ * ascending order. Removing an item just frees its slot, and stale slots are
+ * skipped at query time until enough of them pile up to rebuild the index.
+ */
+public class NameIndex {
+
+    private Item[] slots = new Item[1024];
+    private String[] lowerNames = new String[1024];
+    private int size;  // slots handed out
+    private int dead;  // freed slots still referenced by postings
+
+    private final Map<Item, Integer> slotOf = new IdentityHashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    // ===== Maintenance =====
+    public void add(Item item) {
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+            lowerNames = Arrays.copyOf(lowerNames, size * 2);
+        }
+        int slot = size++;
+        String lower = item.getName().toLowerCase(Locale.ROOT);
+        slots[slot] = item;
+        lowerNames[slot] = lower;
+        slotOf.put(item, slot);
+        for (int i = 0; i + 3 <= lower.length(); i++) {
+            Postings p = postings.computeIfAbsent(trigram(lower, i), k -> new Postings());
+            p.add(slot); // duplicate trigrams in one name are dropped by Postings
+        }
+    }
+
+    public void remove(Item item) {
+        Integer slot = slotOf.remove(item);
+        if (slot == null)
+            return;
+        slots[slot] = null;
+        lowerNames[slot] = null;
+        dead++;
+        if (dead > 1024 && dead > size - dead)
+            rebuild();
+    }
+
+    // Call after an item's name changed.
+    public void update(Item item) {
+        remove(item);
+        add(item);
+    }
+
+    public void clear() {
+        slots = new Item[1024];
+        lowerNames = new String[1024];
+        size = 0;
+        dead = 0;
+        slotOf.clear();
+        postings.clear();
+    }
+
+    // ===== Query =====
+    // Matches are returned in indexing order.
+    public List<Item> search(String query) {
+        String q = query.toLowerCase(Locale.ROOT);
+        List<Item> result = new ArrayList<>();
+        if (q.length() < 3) {
+            for (int s = 0; s < size; s++) {
+                if (slots[s] != null && lowerNames[s].contains(q))
+                    result.add(slots[s]);
+            }
+            return result;
+        }
+
+        // Gather posting lists for each distinct trigram, shortest first
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Postings p = postings.get(trigram(q, i));
+            if (p == null)
+                return result;
+            if (!lists.contains(p))
+                lists.add(p);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        int[] candidates = Arrays.copyOf(lists.get(0).slots, lists.get(0).size);
+        int count = candidates.length;
+        for (int l = 1; l < lists.size() && count > 0; l++)
+            count = intersect(candidates, count, lists.get(l));
+
+        for (int c = 0; c < count; c++) {
+            int s = candidates[c];
+            if (slots[s] != null && lowerNames[s].contains(q))
+                result.add(slots[s]);
+        }
+        return result;
+    }
+
+    // Keeps candidates[0..count) that also appear in p; both are ascending.
+    private static int intersect(int[] candidates, int count, Postings p) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < p.size; i++) {
+            int want = candidates[i];
+            // gallop through the (usually longer) posting list
+            int step = 1;
+            while (j + step < p.size && p.slots[j + step] < want) {
+                j += step;
+                step <<= 1;
+            }
+            int hi = Math.min(j + step, p.size - 1);
+            j = lowerBound(p.slots, j, hi + 1, want);
+            if (j < p.size && p.slots[j] == want)
+                candidates[kept++] = want;
+        }
+        return kept;
+    }
+
+    private static int lowerBound(int[] a, int from, int to, int key) {
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    // Drops freed slots by re-indexing the live items in their current order.
+    private void rebuild() {
+        Item[] live = new Item[size - dead];
+        int n = 0;
+        for (int s = 0; s < size; s++) {
+            if (slots[s] != null)
+                live[n++] = slots[s];
+        }
+        clear();
+        for (Item item : live)
+            add(item);
+    }
+
+    // ===== Growable, ascending int posting list =====
+    private static class Postings {
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            if (size > 0 && slots[size - 1] == slot)
+                return;
+            if (size == slots.length)
+                slots = Arrays.copyOf(slots, size * 2);
+            slots[size++] = slot;
+        }
+    }
+}
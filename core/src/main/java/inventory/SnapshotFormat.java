@@ -0,0 +1,266 @@
+package inventory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of the inventory, used by InventoryStore and convertible
+ * to and from the CSV layout.
+ *
+ * Version 3 is columnar. The header ends with the manager's next id, so ids
+ * of removed items are not handed out again after a restart. After the
+ * header come three string dictionaries
+ * (names, categories, units), then one column per field: ids, name codes,
+ * category codes, unit codes, quantities and expiry epoch days. A CRC32 of
+ * everything before it closes the file. Reading loads the file into a heap
+ * buffer and bulk-copies each column, so there is no per-row parsing.
+ * Version 2 files (the same, without nextId) are still read.
+ *
+ *   int magic, int version, int count, long nextId
+ *   3 x { int size, size x { int byteLength, UTF-8 bytes } }
+ *   long[count] id, int[count] name, int[count] category, int[count] unit,
+ *   double[count] quantity, int[count] expiryDay
+ *   int crc32
+ */
+public class SnapshotFormat {
+
+    public static final int MAGIC = 0x494e5653; // "INVS"
+    public static final int VERSION = 3;
+    private static final int VERSION_WITHOUT_NEXT_ID = 2;
+
+    private SnapshotFormat() {
+    }
+
+    // ===== Write (tmp file, fsync, atomic rename) =====
+    public static void write(Path target, List<Journal.Record> rows, long nextId) throws IOException {
+        int n = rows.size();
+        Map<String, Integer> names = new HashMap<>();
+        Map<String, Integer> categories = new HashMap<>();
+        Map<String, Integer> units = new HashMap<>();
+        List<String> nameList = new ArrayList<>();
+        List<String> categoryList = new ArrayList<>();
+        List<String> unitList = new ArrayList<>();
+        int[] nameCol = new int[n];
+        int[] categoryCol = new int[n];
+        int[] unitCol = new int[n];
+        for (int i = 0; i < n; i++) {
+            Journal.Record r = rows.get(i);
+            nameCol[i] = encode(names, nameList, r.name);
+            categoryCol[i] = encode(categories, categoryList, r.category);
+            unitCol[i] = encode(units, unitList, r.unit);
+        }
+
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), 1 << 20));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeLong(nextId);
+            writeDictionary(out, nameList);
+            writeDictionary(out, categoryList);
+            writeDictionary(out, unitList);
+            for (Journal.Record r : rows)
+                out.writeLong(r.id);
+            for (int c : nameCol)
+                out.writeInt(c);
+            for (int c : categoryCol)
+                out.writeInt(c);
+            for (int c : unitCol)
+                out.writeInt(c);
+            for (Journal.Record r : rows)
+                out.writeDouble(r.quantity);
+            for (Journal.Record r : rows)
+                out.writeInt(r.expiryDay);
+            out.flush();
+            // the checksum itself is written outside the checked stream
+            ByteBuffer tail = ByteBuffer.allocate(4).putInt((int) crc.getValue());
+            tail.flip();
+            while (tail.hasRemaining())
+                channel.write(tail);
+            channel.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static int encode(Map<String, Integer> codes, List<String> values, String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    private static void writeDictionary(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String v : values) {
+            byte[] bytes = v.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    // ===== Read =====
+    // A plain read rather than a mapping: everything is copied out anyway, and a
+    // mapping is only released by GC, which on Windows keeps the file from being deleted.
+    public static Contents read(Path file) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("Snapshot too large: " + file);
+            buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining()) {
+                if (channel.read(buf) < 0)
+                    throw new IOException("Snapshot changed while reading: " + file);
+            }
+            buf.flip();
+        }
+        if (buf.remaining() < 12 || buf.getInt() != MAGIC)
+            throw new IOException("Not an inventory snapshot: " + file);
+        int version = buf.getInt();
+        if (version != VERSION && version != VERSION_WITHOUT_NEXT_ID)
+            throw new IOException("Unsupported snapshot version " + version + ": " + file
+                    + ". Convert it to CSV with the release that wrote it (SnapshotFormat to-csv),"
+                    + " then back with this one (SnapshotFormat to-snapshot), or import the CSV.");
+        verifyChecksum(buf, file);
+        int n = buf.getInt();
+        long nextId = version == VERSION ? buf.getLong() : 1;
+        List<Item> items = readItems(buf, n);
+        if (version == VERSION_WITHOUT_NEXT_ID) {
+            for (Item item : items) // what the manager went by before nextId was stored
+                nextId = Math.max(nextId, item.getId() + 1);
+        }
+        return new Contents(items, nextId);
+    }
+
+    private static void verifyChecksum(ByteBuffer buf, Path file) throws IOException {
+        int end = buf.limit() - 4;
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buf.duplicate();
+        body.position(0).limit(end);
+        crc.update(body);
+        if ((int) crc.getValue() != buf.getInt(end))
+            throw new IOException("Corrupt snapshot: " + file);
+    }
+
+    // Columns are bulk-copied, then zipped into Items in one pass. The file's
+    // category and unit codes are mapped to Dictionary codes once per distinct
+    // value, not looked up again for every row.
+    private static List<Item> readItems(ByteBuffer buf, int n) {
+        String[] names = readDictionary(buf);
+        int[] categories = liveCodes(Dictionary.CATEGORIES, readDictionary(buf));
+        int[] units = liveCodes(Dictionary.UNITS, readDictionary(buf));
+
+        long[] ids = new long[n];
+        buf.asLongBuffer().get(ids);
+        buf.position(buf.position() + n * 8);
+        int[] nameCol = readInts(buf, n);
+        int[] categoryCol = readInts(buf, n);
+        int[] unitCol = readInts(buf, n);
+        double[] quantities = new double[n];
+        buf.asDoubleBuffer().get(quantities);
+        buf.position(buf.position() + n * 8);
+        int[] expiry = readInts(buf, n);
+
+        List<Item> items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            items.add(new Item(ids[i], names[nameCol[i]], categories[categoryCol[i]],
+                    Item.loadedQuantity(quantities[i]), units[unitCol[i]], expiry[i]));
+        return items;
+    }
+
+    private static int[] liveCodes(Dictionary dictionary, String[] values) {
+        int[] codes = new int[values.length];
+        for (int i = 0; i < values.length; i++)
+            codes[i] = dictionary.code(values[i]);
+        return codes;
+    }
+
+    private static int[] readInts(ByteBuffer buf, int n) {
+        int[] col = new int[n];
+        buf.asIntBuffer().get(col);
+        buf.position(buf.position() + n * 4);
+        return col;
+    }
+
+    private static String[] readDictionary(ByteBuffer buf) {
+        String[] values = new String[buf.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            byte[] bytes = new byte[buf.getInt()];
+            buf.get(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    // ===== Snapshot Contents =====
+    public static class Contents {
+        private final List<Item> items;
+        private final long nextId;
+
+        Contents(List<Item> items, long nextId) {
+            this.items = items;
+            this.nextId = nextId;
+        }
+
+        public List<Item> getItems() { return items; }
+        public long getNextId() { return nextId; }
+    }
+
+    // ===== CSV conversion =====
+    public static int csvToSnapshot(Path csv, Path snapshot) throws IOException {
+        CsvImporter.Result result = new CsvImporter().importFile(csv, null);
+        List<Journal.Record> rows = new ArrayList<>(result.getItems().size());
+        long id = 1;
+        for (Item item : result.getItems()) {
+            item.setId(id++);
+            rows.add(Journal.Record.of(item));
+        }
+        write(snapshot, rows, id);
+        return rows.size();
+    }
+
+    public static long snapshotToCsv(Path snapshot, Path csv) throws IOException {
+        boolean gzip = csv.getFileName().toString().toLowerCase().endsWith(".gz");
+        return new CsvExporter().export(read(snapshot).getItems(), csv, gzip, null, null);
+    }
+
+    // Usage: SnapshotFormat to-snapshot <in.csv> <out.bin> | to-csv <in.bin> <out.csv>
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: SnapshotFormat to-snapshot <in.csv> <out.bin> | to-csv <in.bin> <out.csv>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        long rows;
+        if (args[0].equals("to-snapshot"))
+            rows = csvToSnapshot(Paths.get(args[1]), Paths.get(args[2]));
+        else if (args[0].equals("to-csv"))
+            rows = snapshotToCsv(Paths.get(args[1]), Paths.get(args[2]));
+        else
+            throw new IllegalArgumentException("Unknown command " + args[0]);
+        System.out.println(rows + " rows in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,351 @@
+package inventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Items grouped into lots of the same product: same name (ignoring case and
+ * surrounding spaces) and same base unit (see Units), so "Rice" in kg and in
+ * g is one product, and rice in pcs (bags) is another.
+ *
+ * Each product keeps its lots in a binary min-heap by expiry day (ties: lower
+ * id, i.e. the older entry, first) and a running total in the base unit. The
+ * soonest-expiring lot is at the root; adding or removing any lot is
+ * O(log lots), since every item remembers its heap slot (Item.lotSlot).
+ *
+ * Products live in an open-addressing table keyed by the items' own names,
+ * so no key strings are stored, and a product with a single lot is just that
+ * Item in its slot; only products with several lots get Lots heaps.
+ *
+ * Not thread-safe: InventoryManager calls it under its write lock and reads it
+ * under its read lock.
+ */
+final class Stock {
+
+    // Linear probing, at most half full. A slot holds the product's only lot (an
+    // Item) or its chain of Lots, one per base unit.
+    private Object[] slots = new Object[16];
+    private int count;
+
+    // ===== Maintenance =====
+    void add(Item item) {
+        int s = find(item.getName());
+        if (s < 0) {
+            insert(item);
+            return;
+        }
+        int base = Units.base(item.getUnitCode());
+        if (slots[s] instanceof Item) { // second lot: switch to heaps
+            Item only = (Item) slots[s];
+            Lots lots = new Lots(Units.base(only.getUnitCode()), null);
+            lots.add(only);
+            slots[s] = lots;
+        }
+        Lots head = (Lots) slots[s];
+        Lots lots = find(head, base);
+        if (lots == null)
+            slots[s] = lots = new Lots(base, head);
+        lots.add(item);
+    }
+
+    void remove(Item item) {
+        remove(item, item.getName(), item.getUnitCode(), item.getQuantity());
+    }
+
+    // After an edit, given the item's name, unit and quantity before it: re-sifts the
+    // lot and adjusts the total in place, or moves it if the product changed.
+    void update(Item item, String oldName, int oldUnit, double oldQuantity) {
+        int base = Units.base(item.getUnitCode());
+        if (base != Units.base(oldUnit) || !sameProduct(oldName, item.getName())) {
+            remove(item, oldName, oldUnit, oldQuantity);
+            add(item);
+            return;
+        }
+        int s = find(item.getName());
+        if (s < 0 || !(slots[s] instanceof Lots))
+            return; // a single lot: nothing is kept about it but its slot
+        Lots lots = find((Lots) slots[s], base);
+        if (lots != null)
+            lots.update(item, Units.toBase(oldQuantity, oldUnit));
+    }
+
+    // Removes item as filed under oldName / oldUnit / oldQuantity
+    private void remove(Item item, String oldName, int oldUnit, double oldQuantity) {
+        int s = find(oldName, item);
+        if (s < 0)
+            return;
+        if (slots[s] == item) {
+            delete(s);
+            return;
+        }
+        if (!(slots[s] instanceof Lots))
+            return;
+        Lots head = (Lots) slots[s];
+        Lots lots = find(head, Units.base(oldUnit));
+        if (lots == null)
+            return;
+        lots.remove(item, Units.toBase(oldQuantity, oldUnit));
+        if (lots.size > 0)
+            return;
+        if (lots == head) {
+            if (head.next == null)
+                delete(s);
+            else
+                slots[s] = head.next;
+        } else {
+            Lots prev = head;
+            while (prev.next != lots)
+                prev = prev.next;
+            prev.next = lots.next;
+        }
+    }
+
+    // ===== Queries =====
+    // The product's lots in unitCode's dimension, or null. A single lot is moved into
+    // a heap first, so only call this under the write lock.
+    Lots lotsForUpdate(String name, int unitCode) {
+        int s = find(name);
+        if (s < 0)
+            return null;
+        if (slots[s] instanceof Item) {
+            Item only = (Item) slots[s];
+            Lots lots = new Lots(Units.base(only.getUnitCode()), null);
+            lots.add(only);
+            slots[s] = lots;
+        }
+        return find((Lots) slots[s], Units.base(unitCode));
+    }
+
+    // Base unit -> total, for every base unit the product is stocked in
+    Map<String, Double> totals(String name) {
+        Map<String, Double> totals = new LinkedHashMap<>();
+        int s = find(name);
+        if (s < 0)
+            return totals;
+        if (slots[s] instanceof Item) {
+            Item only = (Item) slots[s];
+            totals.put(Dictionary.UNITS.value(Units.base(only.getUnitCode())),
+                    Units.toBase(only.getQuantity(), only.getUnitCode()));
+            return totals;
+        }
+        for (Lots l = (Lots) slots[s]; l != null; l = l.next)
+            totals.put(Dictionary.UNITS.value(l.baseUnit), l.total);
+        return totals;
+    }
+
+    // All lots of the product, soonest expiry first
+    List<Item> lots(String name) {
+        List<Item> all = new ArrayList<>();
+        int s = find(name);
+        if (s < 0)
+            return all;
+        if (slots[s] instanceof Item) {
+            all.add((Item) slots[s]);
+            return all;
+        }
+        for (Lots l = (Lots) slots[s]; l != null; l = l.next)
+            all.addAll(Arrays.asList(l.heap).subList(0, l.size));
+        all.sort(Stock::compare);
+        return all;
+    }
+
+    private static Lots find(Lots head, int baseUnit) {
+        for (Lots l = head; l != null; l = l.next) {
+            if (l.baseUnit == baseUnit)
+                return l;
+        }
+        return null;
+    }
+
+    private static int compare(Item a, Item b) {
+        if (a.getExpiryDay() != b.getExpiryDay())
+            return Integer.compare(a.getExpiryDay(), b.getExpiryDay());
+        return Long.compare(a.getId(), b.getId());
+    }
+
+    // ===== Product table =====
+    private int find(String name) {
+        return find(name, null);
+    }
+
+    // Also matches the slot holding item, whose name may already have been edited
+    private int find(String name, Item item) {
+        int mask = slots.length - 1;
+        for (int s = hash(name) & mask; slots[s] != null; s = (s + 1) & mask) {
+            if ((item != null && holds(slots[s], item)) || sameProduct(nameOf(slots[s]), name))
+                return s;
+        }
+        return -1;
+    }
+
+    private static boolean holds(Object product, Item item) {
+        if (product == item)
+            return true;
+        if (!(product instanceof Lots))
+            return false;
+        for (Lots l = (Lots) product; l != null; l = l.next) {
+            if (item.lotSlot < l.size && l.heap[item.lotSlot] == item)
+                return true;
+        }
+        return false;
+    }
+
+    private void insert(Object product) {
+        if (2 * (count + 1) > slots.length) {
+            Object[] old = slots;
+            slots = new Object[old.length * 2];
+            for (Object p : old) {
+                if (p != null)
+                    place(p);
+            }
+        }
+        place(product);
+        count++;
+    }
+
+    private void place(Object product) {
+        int mask = slots.length - 1;
+        int s = hash(nameOf(product)) & mask;
+        while (slots[s] != null)
+            s = (s + 1) & mask;
+        slots[s] = product;
+    }
+
+    // Backward-shift deletion, so probes never need tombstones
+    private void delete(int s) {
+        int mask = slots.length - 1;
+        int gap = s;
+        for (int next = (gap + 1) & mask; slots[next] != null; next = (next + 1) & mask) {
+            int home = hash(nameOf(slots[next])) & mask;
+            // move the entry back if its home is not in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                slots[gap] = slots[next];
+                gap = next;
+            }
+        }
+        slots[gap] = null;
+        count--;
+    }
+
+    private static String nameOf(Object product) {
+        return product instanceof Item ? ((Item) product).getName() : ((Lots) product).heap[0].getName();
+    }
+
+    // Same product: equal ignoring case and leading / trailing spaces
+    static boolean sameProduct(String a, String b) {
+        int fa = start(a), fb = start(b);
+        int len = end(a) - fa;
+        return len == end(b) - fb && a.regionMatches(true, fa, b, fb, len);
+    }
+
+    // Consistent with sameProduct
+    static int hash(String name) {
+        int h = 0;
+        for (int i = start(name), e = end(name); i < e; i++)
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        h *= 0x9E3779B9; // spread similar names ("Item 1", "Item 2", ...) across the table
+        return h ^ (h >>> 16);
+    }
+
+    private static int start(String s) {
+        int i = 0;
+        while (i < s.length() && s.charAt(i) <= ' ')
+            i++;
+        return i;
+    }
+
+    private static int end(String s) {
+        int e = s.length();
+        while (e > 0 && s.charAt(e - 1) <= ' ')
+            e--;
+        return Math.max(e, start(s));
+    }
+
+    // ===== One product in one base unit: indexed min-heap of lots =====
+    static final class Lots {
+        final int baseUnit;
+        private Lots next;
+        private Item[] heap = new Item[2];
+        private int size;
+        private double total; // in baseUnit
+
+        Lots(int baseUnit, Lots next) {
+            this.baseUnit = baseUnit;
+            this.next = next;
+        }
+
+        int size() { return size; }
+        double total() { return total; }
+
+        // Soonest-expiring lot, or null
+        Item peek() {
+            return size == 0 ? null : heap[0];
+        }
+
+        void add(Item item) {
+            if (size == heap.length)
+                heap = Arrays.copyOf(heap, size * 2);
+            heap[size] = item;
+            item.lotSlot = size;
+            siftUp(size++);
+            total += Units.toBase(item.getQuantity(), item.getUnitCode());
+        }
+
+        // baseQuantity: what the item counted for in total
+        void remove(Item item, double baseQuantity) {
+            int slot = item.lotSlot;
+            total -= baseQuantity;
+            Item last = heap[--size];
+            heap[size] = null;
+            if (slot != size) {
+                heap[slot] = last;
+                last.lotSlot = slot;
+                siftDown(slot);
+                siftUp(last.lotSlot);
+            }
+            if (size == 0)
+                total = 0; // no rounding residue on an empty product
+        }
+
+        void update(Item item, double oldBaseQuantity) {
+            total += Units.toBase(item.getQuantity(), item.getUnitCode()) - oldBaseQuantity;
+            siftDown(item.lotSlot);
+            siftUp(item.lotSlot);
+        }
+
+        private void siftUp(int i) {
+            Item item = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (compare(heap[parent], item) <= 0)
+                    break;
+                move(heap[parent], i);
+                i = parent;
+            }
+            move(item, i);
+        }
+
+        private void siftDown(int i) {
+            Item item = heap[i];
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && compare(heap[child + 1], heap[child]) < 0)
+                    child++;
+                if (compare(item, heap[child]) <= 0)
+                    break;
+                move(heap[child], i);
+                i = child;
+            }
+            move(item, i);
+        }
+
+        private void move(Item item, int slot) {
+            heap[slot] = item;
+            item.lotSlot = slot;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package inventory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Unit normalization. Every unit belongs to a base unit of its dimension
+ * (kg for mass, liter for volume, pcs for counts) with a conversion factor,
+ * so 250 g and 1.5 kg add up to 1.75 kg. Spellings are matched ignoring case;
+ * a unit this table doesn't know is its own base unit, so quantities in it
+ * still add up with each other.
+ *
+ * Works on Dictionary.UNITS codes, with the result cached per code: a lookup
+ * on the hot path (every add, remove and edit) is two array reads.
+ */
+public final class Units {
+
+    private static final Map<String, Conversion> KNOWN = new HashMap<>();
+
+    static {
+        mass(1, "kg", "kgs", "kilo", "kilos", "kilogram", "kilograms");
+        mass(0.001, "g", "gr", "gram", "grams");
+        mass(0.000001, "mg", "milligram", "milligrams");
+        mass(0.45359237, "lb", "lbs", "pound", "pounds");
+        mass(0.028349523125, "oz", "ounce", "ounces");
+        volume(1, "liter", "liters", "litre", "litres", "l");
+        volume(0.1, "dl");
+        volume(0.01, "cl");
+        volume(0.001, "ml", "milliliter", "milliliters", "millilitre", "millilitres");
+        count(1, "pcs", "pc", "piece", "pieces", "each", "ea");
+        count(12, "dozen");
+    }
+
+    // Indexed by unit code; grown (copy-on-write) as new units are seen
+    private static volatile int[] baseOf = new int[0];
+    private static volatile double[] factorOf = new double[0];
+
+    private Units() {
+    }
+
+    // ===== Lookup =====
+    // Code of the base unit that unitCode converts to.
+    public static int base(int unitCode) {
+        int[] b = baseOf;
+        return unitCode < b.length ? b[unitCode] : resolve(unitCode) ? baseOf[unitCode] : unitCode;
+    }
+
+    // How many base units one unitCode is.
+    public static double factor(int unitCode) {
+        double[] f = factorOf;
+        return unitCode < f.length ? f[unitCode] : resolve(unitCode) ? factorOf[unitCode] : 1;
+    }
+
+    public static double toBase(double quantity, int unitCode) {
+        return quantity * factor(unitCode);
+    }
+
+    private static synchronized boolean resolve(int unitCode) {
+        int from = baseOf.length;
+        if (unitCode < from)
+            return true;
+        int n = Dictionary.UNITS.size();
+        if (unitCode >= n)
+            return false;
+        int[] b = Arrays.copyOf(baseOf, n);
+        double[] f = Arrays.copyOf(factorOf, n);
+        for (int code = from; code < n; code++) {
+            Conversion c = KNOWN.get(Dictionary.UNITS.value(code).trim().toLowerCase(Locale.ROOT));
+            b[code] = c != null ? Dictionary.UNITS.code(c.base) : code;
+            f[code] = c != null ? c.factor : 1;
+        }
+        factorOf = f; // publish the factors before the bases are read as present
+        baseOf = b;
+        return true;
+    }
+
+    // ===== Table =====
+    private static void mass(double factor, String... spellings) {
+        put("kg", factor, spellings);
+    }
+
+    private static void volume(double factor, String... spellings) {
+        put("liter", factor, spellings);
+    }
+
+    private static void count(double factor, String... spellings) {
+        put("pcs", factor, spellings);
+    }
+
+    private static void put(String base, double factor, String... spellings) {
+        for (String s : spellings)
+            KNOWN.put(s, new Conversion(base, factor));
+    }
+
+    private static final class Conversion {
+        final String base;
+        final double factor;
+
+        Conversion(String base, double factor) {
+            this.base = base;
+            this.factor = factor;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static inventory.PinnedClock.TODAY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Per-day expiry counts and range counts behind the Calendar View, against
+ * a scan of the live items. Dates spread far beyond the histogram's window,
+ * including placeholder dates like 9999-12-31.
+ */
+@ExtendWith(PinnedClock.class)
+class CalendarTest {
+
+    @Test
+    void countsMatchScan() {
+        InventoryManager manager = new InventoryManager();
+        SplittableRandom random = new SplittableRandom(7);
+        List<Item> live = new ArrayList<>();
+
+        for (int op = 0; op < 60_000; op++) {
+            int k = random.nextInt(10);
+            if (k < 5 || live.isEmpty()) {
+                Item item = new Item("x" + op, "Food", 1, "pcs", randomDay(random, op));
+                manager.addItem(item);
+                live.add(item);
+            } else if (k < 8) {
+                manager.removeItem(live.remove(random.nextInt(live.size())));
+            } else {
+                Item item = live.get(random.nextInt(live.size()));
+                manager.updateItem(item, item.getName(), item.getCategory(), 1, "pcs",
+                        TODAY.plusDays(random.nextInt(-100, 30000)));
+            }
+            if (op % 997 == 0)
+                verify(manager, live, random);
+        }
+        verify(manager, live, random);
+    }
+
+    private static LocalDate randomDay(SplittableRandom random, int op) {
+        if (random.nextInt(50) == 0)
+            return LocalDate.of(9999, 12, 31);
+        if (random.nextInt(50) == 0)
+            return LocalDate.of(1900 + random.nextInt(3), 1, 1);
+        return TODAY.plusDays(random.nextInt(-400, 4000 + op / 10));
+    }
+
+    private static void verify(InventoryManager manager, List<Item> live, SplittableRandom random) {
+        LocalDate from = TODAY.plusDays(random.nextInt(-50000, 50000));
+        LocalDate to = from.plusDays(random.nextInt(0, 60000));
+        if (random.nextInt(4) == 0) {
+            from = LocalDate.of(1800, 1, 1);
+            to = LocalDate.of(9999, 12, 31);
+        }
+        assertEquals(count(live, from, to), manager.countExpiringBetween(from, to), from + ".." + to);
+
+        LocalDate grid = TODAY.plusDays(random.nextInt(-500, 5000));
+        int[] counts = manager.getExpiryCounts(grid, 42);
+        for (int d = 0; d < 42; d++) {
+            LocalDate day = grid.plusDays(d);
+            long expected = count(live, day, day);
+            assertEquals(expected, counts[d], day.toString());
+            assertEquals(expected, manager.getItemsExpiringOn(day).size(), day.toString());
+        }
+        assertEquals(count(live, LocalDate.MIN, TODAY.minusDays(1)), manager.getStats().getExpired());
+    }
+
+    private static long count(List<Item> items, LocalDate from, LocalDate to) {
+        long n = 0;
+        for (Item item : items) {
+            if (!item.getExpiryDate().isBefore(from) && !item.getExpiryDate().isAfter(to))
+                n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,134 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static inventory.PinnedClock.TODAY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Writers adding, removing and editing while readers take snapshots, copies,
+ * searches and stats. Every edit sets a name and quantity that belong
+ * together ("v<n>" with n), so a copy mixing two edits shows up as a mismatch.
+ */
+@ExtendWith(PinnedClock.class)
+class ConcurrencyTest {
+
+    private static final String[] CATEGORIES = { "Food", "Medicine", "Electronics", "Other" };
+    private static final long RUN_MILLIS = 1500;
+
+
+
+    @Test
+    void readersSeeConsistentItems() throws InterruptedException {
+        InventoryManager manager = new InventoryManager();
+        long today = InventoryClock.get().today();
+        List<Item> initial = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++)
+            initial.add(new Item("v" + i, CATEGORIES[i & 3], i, "kg", LocalDate.ofEpochDay(today - 50 + i % 100)));
+        manager.addAll(initial);
+
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            Random random = new Random(t);
+            threads.add(new Thread(() -> write(manager, random, today, stop), "writer-" + t));
+        }
+        for (int t = 0; t < 3; t++) {
+            Random random = new Random(100 + t);
+            threads.add(new Thread(() -> read(manager, random, today, stop), "reader-" + t));
+        }
+        for (Thread thread : threads) {
+            thread.setUncaughtExceptionHandler((th, e) -> {
+                failure.compareAndSet(null, e);
+                stop.set(true);
+            });
+            thread.start();
+        }
+        Thread.sleep(RUN_MILLIS);
+        stop.set(true);
+        for (Thread thread : threads)
+            thread.join();
+        assertNull(failure.get(), () -> String.valueOf(failure.get()));
+
+        // Quiescent: counters agree with the items
+        List<Item> all = manager.getAllItems();
+        Set<Item> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(all);
+        int expired = 0, soon = 0;
+        for (Item item : all) {
+            long d = item.getExpiryDay() - today;
+            if (d < 0)
+                expired++;
+            else if (d >= 1 && d <= manager.getWarningDays())
+                soon++;
+        }
+        InventoryManager.Stats stats = manager.getStats();
+        assertEquals(all.size(), distinct.size());
+        assertEquals(all.size(), stats.getTotal());
+        assertEquals(expired, stats.getExpired());
+        assertEquals(soon, stats.getExpiringSoon());
+    }
+
+    private static void write(InventoryManager manager, Random random, long today, AtomicBoolean stop) {
+        List<Item> mine = new ArrayList<>();
+        while (!stop.get()) {
+            int op = random.nextInt(3);
+            int n = random.nextInt(100_000);
+            LocalDate expiry = LocalDate.ofEpochDay(today - 50 + random.nextInt(100));
+            if (op == 0 || mine.isEmpty()) {
+                Item item = new Item("v" + n, CATEGORIES[n & 3], n, "g", expiry);
+                manager.addItem(item);
+                mine.add(item);
+            } else if (op == 1) {
+                manager.removeItem(mine.remove(mine.size() - 1));
+            } else {
+                List<Item> all = manager.getAllItems();
+                Item item = all.get(random.nextInt(all.size()));
+                manager.updateItem(item, "v" + n, CATEGORIES[n & 3], n, "kg", expiry);
+            }
+        }
+    }
+
+    private static void read(InventoryManager manager, Random random, long today, AtomicBoolean stop) {
+        while (!stop.get()) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    List<Item> snapshot = manager.getAllItems();
+                    int from = random.nextInt(Math.max(1, snapshot.size() - 500));
+                    List<Item> copies = manager.copies(snapshot.subList(from, Math.min(from + 500, snapshot.size())));
+                    for (Item copy : copies) {
+                        int n = Integer.parseInt(copy.getName().substring(1));
+                        assertEquals(n, copy.getQuantity(), copy.getName());
+                        assertEquals(CATEGORIES[n & 3], copy.getCategory(), copy.getName());
+                    }
+                    break;
+                case 1:
+                    manager.filter("v1" + random.nextInt(10), "Food");
+                    break;
+                case 2:
+                    InventoryManager.Stats stats = manager.getStats();
+                    int sum = 0;
+                    for (int c : stats.getByCategory().values())
+                        sum += c;
+                    assertEquals(stats.getTotal(), sum);
+                    break;
+                default:
+                    manager.getExpiringItems();
+                    manager.nextTransitionDay(today);
+            }
+        }
+    }
+}
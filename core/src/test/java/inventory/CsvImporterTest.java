@@ -0,0 +1,107 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Field splitting and quoting in CsvImporter, including malformed quotes. */
+class CsvImporterTest {
+
+    private static final String HEADER = "Name,Category,Quantity,Unit,Expiry\n";
+
+    @TempDir
+    Path dir;
+
+    private CsvImporter.Result importText(String text) throws IOException {
+        Path file = dir.resolve("items.csv");
+        Files.writeString(file, HEADER + text, StandardCharsets.UTF_8);
+        return new CsvImporter(2).importFile(file, null);
+    }
+
+    private static List<String> names(CsvImporter.Result result) {
+        List<String> names = new ArrayList<>();
+        for (Item item : result.getItems())
+            names.add(item.getName());
+        return names;
+    }
+
+    @Test
+    void splitsQuotedFields() {
+        assertEquals(List.of("a,b", "say \"hi\"", "", "x"), CsvImporter.splitRecord("\"a,b\",\"say \"\"hi\"\"\",,x"));
+        assertEquals(List.of("TV 55\"", "Electronics"), CsvImporter.splitRecord("TV 55\",Electronics"));
+        assertEquals(List.of("5\" \"pipe\""), CsvImporter.splitRecord("5\" \"pipe\""));
+    }
+
+    @Test
+    void quoteOpensOnlyAtFieldStart() {
+        assertFalse(CsvImporter.hasOpenQuote("TV 55\",Electronics,1,pcs,2030-01-01"));
+        assertFalse(CsvImporter.hasOpenQuote("\"a\"\"b\",c"));
+        assertTrue(CsvImporter.hasOpenQuote("x,\"multi"));
+        assertTrue(CsvImporter.hasOpenQuote("\"a\"\""));
+    }
+
+    // A stray quote inside an unquoted field used to swallow the rest of the file
+    @Test
+    void strayQuoteKeepsFollowingRows() throws IOException {
+        CsvImporter.Result result = importText(
+                "TV 55\",Electronics,1,pcs,2030-01-01\n"
+                + "Milk,Food,2,liter,2030-01-02\n"
+                + "Bread,Food,1,pcs,2030-01-03\n"
+                + "Rice,Food,5,kg,2030-01-04\n");
+        assertEquals(4, result.getRows());
+        assertEquals(List.of("TV 55\"", "Milk", "Bread", "Rice"), names(result));
+        assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+    }
+
+    @Test
+    void quotedFieldSpansLines() throws IOException {
+        CsvImporter.Result result = importText(
+                "\"Spice\nmix\",Food,1,jar,2030-01-01\n"
+                + "Milk,Food,2,liter,2030-01-02\n");
+        assertEquals(List.of("Spice\nmix", "Milk"), names(result));
+    }
+
+    @Test
+    void unterminatedQuoteIsReportedAndRowsAfterItImported() throws IOException {
+        CsvImporter.Result result = importText(
+                "Milk,Food,2,liter,2030-01-02\n"
+                + "\"Tea,Food,1,pcs,2030-01-01\n"
+                + "Bread,Food,1,pcs,2030-01-03\n"
+                + "Rice,Food,5,kg,2030-01-04\n");
+        assertEquals(4, result.getRows());
+        assertEquals(List.of("Milk", "Bread", "Rice"), names(result));
+        assertEquals(List.of("Unterminated quote at line 3"), result.getErrors());
+    }
+
+    @Test
+    void rejectsNonFiniteAndNegativeQuantities() throws IOException {
+        CsvImporter.Result result = importText(
+                "Milk,Food,NaN,liter,2030-01-02\n"
+                + "Tea,Food,1e999,pcs,2030-01-01\n"
+                + "Rice,Food,-5,kg,2030-01-04\n"
+                + "Bread,Food,1,pcs,2030-01-03\n");
+        assertEquals(List.of("Bread"), names(result));
+        assertEquals(3, result.getErrors().size());
+    }
+
+    @Test
+    void openQuoteGivesUpAfterLineLimit() throws IOException {
+        StringBuilder text = new StringBuilder("x,\"open,1,pcs,2030-01-01\n");
+        for (int i = 0; i < 300; i++)
+            text.append("Item").append(i).append(",Food,1,pcs,2030-01-01\n");
+        CsvImporter.Result result = importText(text.toString());
+        assertEquals(301, result.getRows());
+        assertEquals(300, result.getItems().size());
+        assertEquals(List.of("Unterminated quote at line 2"), result.getErrors());
+    }
+}
@@ -0,0 +1,186 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static inventory.PinnedClock.TODAY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Expiry rules on a pinned InventoryClock: item status, the dashboard
+ * counters across day changes, and the transition days the notifier sleeps
+ * until. Starts each test from the default warning window.
+ */
+@ExtendWith(PinnedClock.class)
+class ExpiryTest {
+
+    private int warn = ExpirySettings.DEFAULT_WARNING_DAYS;
+
+    private static Item item(String name, LocalDate expiry) {
+        return new Item(name, "Food", 1, "kg", expiry);
+    }
+
+    // ===== Item status =====
+    @Test
+    void statusBoundaries() {
+        assertEquals(ExpiryStatus.EXPIRED, ExpiryStatus.of((int) TODAY.minusDays(1).toEpochDay()));
+        assertEquals(ExpiryStatus.OK, ExpiryStatus.of((int) TODAY.toEpochDay())); // today is not "soon"
+        assertEquals(ExpiryStatus.EXPIRING, ExpiryStatus.of((int) TODAY.plusDays(1).toEpochDay()));
+        assertEquals(ExpiryStatus.EXPIRING, ExpiryStatus.of((int) TODAY.plusDays(warn).toEpochDay()));
+        assertEquals(ExpiryStatus.OK, ExpiryStatus.of((int) TODAY.plusDays(warn + 1).toEpochDay()));
+    }
+
+    @Test
+    void itemChecksAgreeWithStatus() {
+        for (int d = -3; d <= warn + 3; d++) {
+            Item item = item("x", TODAY.plusDays(d));
+            assertEquals(d, item.daysToExpiry());
+            assertEquals(d < 0, item.isExpired());
+            assertEquals(d > 0 && d <= warn, item.isExpiringSoon());
+            ExpiryStatus expected = item.isExpired() ? ExpiryStatus.EXPIRED
+                    : item.isExpiringSoon() ? ExpiryStatus.EXPIRING : ExpiryStatus.OK;
+            assertEquals(expected, item.getStatus());
+        }
+    }
+
+    // ===== Dashboard counters =====
+    @Test
+    void countersFollowTheClock() {
+        InventoryManager manager = new InventoryManager();
+        manager.setWarningDays(3);
+        for (int d = -2; d <= 6; d++)
+            manager.addItem(item("d" + d, TODAY.plusDays(d)));
+
+        InventoryManager.Stats stats = manager.getStats();
+        assertEquals(9, stats.getTotal());
+        assertEquals(2, stats.getExpired());      // -2, -1
+        assertEquals(3, stats.getExpiringSoon()); // 1, 2, 3
+        assertEquals(2, manager.getExpiredItems().size());
+
+        InventoryClock.setShared(InventoryClock.fixed(TODAY.plusDays(4)));
+        stats = manager.getStats();
+        assertEquals(6, stats.getExpired());      // -2 .. 3
+        assertEquals(2, stats.getExpiringSoon()); // 5, 6
+        assertEquals(6, manager.getExpiredItems().size());
+
+        InventoryClock.setShared(InventoryClock.fixed(TODAY.minusDays(10))); // clock moved back
+        stats = manager.getStats();
+        assertEquals(0, stats.getExpired());
+        assertEquals(0, stats.getExpiringSoon());
+    }
+
+    @Test
+    void warningWindowRecounts() {
+        InventoryManager manager = new InventoryManager();
+        manager.setWarningDays(2);
+        for (int d = 1; d <= 10; d++)
+            manager.addItem(item("d" + d, TODAY.plusDays(d)));
+        assertEquals(2, manager.getStats().getExpiringSoon());
+        manager.setWarningDays(7);
+        assertEquals(7, manager.getStats().getExpiringSoon());
+        assertEquals(7, manager.getExpiringItems().size());
+    }
+
+    // The manager's window used to be its own, so item status kept the old one
+    @Test
+    void warningWindowIsSharedWithItemStatus() {
+        InventoryManager manager = new InventoryManager();
+        Item item = item("d5", TODAY.plusDays(5));
+        manager.addItem(item);
+        manager.setWarningDays(3);
+        assertEquals(ExpiryStatus.OK, item.getStatus());
+        assertEquals(0, manager.getStats().getExpiringSoon());
+
+        manager.setWarningDays(5);
+        assertEquals(ExpiryStatus.EXPIRING, item.getStatus());
+        assertTrue(item.isExpiringSoon());
+        assertEquals(List.of(item), manager.getExpiringItems());
+
+        ExpirySettings.setWarningDays(4); // e.g. another manager, or the app's settings
+        assertEquals(4, manager.getWarningDays());
+        assertEquals(ExpiryStatus.OK, item.getStatus());
+        assertEquals(0, manager.getStats().getExpiringSoon());
+    }
+
+    // ===== Transitions (what ExpiryNotifier sleeps until) =====
+    @Test
+    void transitionDays() {
+        InventoryManager manager = new InventoryManager();
+        manager.setWarningDays(3);
+        manager.addItem(item("A", TODAY.plusDays(10)));
+        manager.addItem(item("B", TODAY.plusDays(10)));
+        manager.addItem(item("C", TODAY.plusDays(2)));
+
+        List<String> events = new ArrayList<>();
+        long day = TODAY.toEpochDay();
+        for (OptionalLong next = manager.nextTransitionDay(day); next.isPresent();
+                next = manager.nextTransitionDay(day)) {
+            day = next.getAsLong();
+            events.add(LocalDate.ofEpochDay(day) + " soon=" + names(manager.getItemsBecomingExpiringSoonOn(day))
+                    + " expired=" + names(manager.getItemsBecomingExpiredOn(day)));
+        }
+        assertEquals(List.of(
+                "2030-01-13 soon=[] expired=[C]",
+                "2030-01-17 soon=[A, B] expired=[]",
+                "2030-01-21 soon=[] expired=[A, B]"), events);
+    }
+
+    @Test
+    void noTransitionsLeft() {
+        InventoryManager manager = new InventoryManager();
+        manager.addItem(item("old", TODAY.minusDays(5)));
+        assertFalse(manager.nextTransitionDay(TODAY.toEpochDay()).isPresent());
+        assertTrue(manager.getExpiringItems().isEmpty());
+    }
+
+    // Day arithmetic past the int range used to wrap around (subMap "fromKey > toKey")
+    @Test
+    void hugeRangesClampInsteadOfWrapping() {
+        InventoryManager manager = new InventoryManager();
+        manager.addItem(item("far", LocalDate.of(9999, 12, 31)));
+        manager.addItem(item("soon", TODAY.plusDays(1)));
+        assertEquals(2, manager.getItemsExpiringWithin(Integer.MAX_VALUE).size());
+        assertEquals(OptionalLong.of(TODAY.plusDays(2).toEpochDay()),
+                manager.nextTransitionDay(TODAY.toEpochDay()));
+        assertFalse(manager.nextTransitionDay(Integer.MAX_VALUE + 5L).isPresent());
+        assertTrue(manager.nextTransitionDay(Integer.MIN_VALUE - 5L).isPresent());
+    }
+
+    // Dates past the int epoch-day range threw ArithmeticException (a 500 from the
+    // server) and getItemsExpiringOn wrapped them onto another day's bucket
+    @Test
+    void datesBeyondTheEpochDayRangeAreRejected() {
+        LocalDate last = LocalDate.ofEpochDay(Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> item("max", LocalDate.MAX));
+        assertThrows(IllegalArgumentException.class, () -> item("after", last.plusDays(1)));
+
+        InventoryManager manager = new InventoryManager();
+        Item edge = item("edge", last);
+        manager.addItem(edge);
+        manager.addItem(item("epoch", LocalDate.ofEpochDay(0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.updateItem(edge, "changed", "Food", 2, "kg", LocalDate.MAX));
+        assertEquals("edge", edge.getName()); // nothing changed
+
+        assertEquals(List.of(edge), manager.getItemsExpiringOn(last));
+        assertTrue(manager.getItemsExpiringOn(LocalDate.MAX).isEmpty());
+        assertTrue(manager.getItemsExpiringOn(LocalDate.ofEpochDay(1L << 32)).isEmpty()); // wrapped to day 0
+        assertTrue(manager.getItemsExpiringBetween(last.plusDays(1), LocalDate.MAX).isEmpty());
+        assertFalse(manager.nextTransitionDay(Integer.MAX_VALUE + 5L).isPresent());
+    }
+
+    private static List<String> names(List<Item> items) {
+        List<String> names = new ArrayList<>();
+        for (Item i : items)
+            names.add(i.getName());
+        return names;
+    }
+}
@@ -0,0 +1,170 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static inventory.PinnedClock.TODAY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * InventoryManager against a naive model (an insertion-ordered map by id):
+ * random adds, bulk adds, removals, bulk removals, edits and purges, checking
+ * snapshots, id lookups, search and the dashboard counters along the way.
+ */
+@ExtendWith(PinnedClock.class)
+class InventoryManagerTest {
+
+    @Test
+    void matchesNaiveModel() {
+        InventoryManager manager = new InventoryManager();
+        Map<Long, Item> model = new LinkedHashMap<>();
+        List<Item> held = new ArrayList<>(); // includes removed items, to exercise stale handles
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int step = 0; step < 50_000; step++) {
+            int op = random.nextInt(100);
+            if (op < 40) {
+                Item item = new Item("n" + random.nextInt(1000), "Food", 1, "pcs", day(random));
+                manager.addItem(item);
+                model.put(item.getId(), item);
+                held.add(item);
+            } else if (op < 45) {
+                List<Item> batch = new ArrayList<>();
+                for (int i = random.nextInt(50); i > 0; i--)
+                    batch.add(new Item("b" + i, "Medicine", 2, "kg", day(random)));
+                manager.addAll(batch);
+                for (Item item : batch) {
+                    model.put(item.getId(), item);
+                    held.add(item);
+                }
+            } else if (op < 70 && !held.isEmpty()) {
+                Item item = pick(held, random);
+                assertEquals(model.remove(item.getId()) != null, manager.removeItem(item));
+            } else if (op < 73 && !held.isEmpty()) {
+                List<Item> batch = new ArrayList<>();
+                for (int i = random.nextInt(100); i > 0; i--)
+                    batch.add(pick(held, random)); // with repeats
+                int expected = 0;
+                for (Item item : new LinkedHashSet<>(batch)) {
+                    if (model.remove(item.getId()) != null)
+                        expected++;
+                }
+                assertEquals(expected, manager.removeAll(batch));
+            } else if (op < 85 && !held.isEmpty()) {
+                Item item = pick(held, random);
+                boolean updated = manager.updateItem(item, "u" + random.nextInt(100),
+                        random.nextBoolean() ? "Food" : "Other", 3, "g", day(random));
+                assertEquals(model.containsKey(item.getId()), updated);
+            } else if (op < 86) {
+                int expired = 0;
+                for (Iterator<Item> i = model.values().iterator(); i.hasNext();) {
+                    if (i.next().isExpired()) {
+                        i.remove();
+                        expired++;
+                    }
+                }
+                assertEquals(expired, manager.purgeExpired());
+            } else if (op < 95) {
+                assertEquals(new ArrayList<>(model.values()), manager.getAllItems(), "snapshot at step " + step);
+            } else {
+                for (int i = 0; i < 5 && !held.isEmpty(); i++) {
+                    Item item = pick(held, random);
+                    assertSame(model.get(item.getId()), manager.getItem(item.getId()));
+                }
+            }
+            if (step % 997 == 0)
+                verify(manager, model);
+            if (held.size() > 5000)
+                held.subList(0, 2500).clear();
+        }
+        verify(manager, model);
+    }
+
+    private static void verify(InventoryManager manager, Map<Long, Item> model) {
+        InventoryManager.Stats stats = manager.getStats();
+        int expired = 0;
+        for (Item item : model.values()) {
+            if (item.isExpired())
+                expired++;
+        }
+        assertEquals(model.size(), stats.getTotal());
+        assertEquals(model.size(), manager.size());
+        assertEquals(expired, stats.getExpired());
+
+        Set<Item> expected = new HashSet<>();
+        for (Item item : model.values()) {
+            if (item.getName().contains("u1"))
+                expected.add(item);
+        }
+        assertEquals(expected, new HashSet<>(manager.searchItems("u1")));
+    }
+
+    @Test
+    void snapshotsAreImmutable() {
+        InventoryManager manager = new InventoryManager();
+        for (int i = 0; i < 10; i++)
+            manager.addItem(new Item("i" + i, "Food", 1, "pcs", TODAY));
+        List<Item> snapshot = manager.getAllItems();
+        manager.removeItem(snapshot.get(0));
+        manager.addItem(new Item("late", "Food", 1, "pcs", TODAY));
+        assertEquals(10, snapshot.size());
+        assertEquals("i0", snapshot.get(0).getName());
+        assertNotEquals(snapshot, manager.getAllItems());
+    }
+
+    @Test
+    void idsAreUniqueAndNeverReused() {
+        InventoryManager manager = new InventoryManager();
+        Item a = new Item("a", "Food", 1, "pcs", TODAY);
+        Item b = new Item("b", "Food", 1, "pcs", TODAY);
+        manager.addItem(a);
+        manager.addItem(b);
+        manager.removeItem(b);
+        Item c = new Item("c", "Food", 1, "pcs", TODAY);
+        manager.addItem(c);
+        assertTrue(c.getId() > b.getId());
+        assertThrows(IllegalArgumentException.class, () -> manager.addItem(a));
+    }
+
+    // Under a Turkish default locale "MEDICINE".toLowerCase() is "medıcıne" (dotless i)
+    @Test
+    void caseIsIgnoredInAnyLocale() {
+        Locale saved = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            InventoryManager manager = new InventoryManager();
+            Item item = new Item("ASPIRIN", "MEDICINE", 10, "PCS", TODAY);
+            manager.addItem(item);
+            assertEquals(List.of(item), manager.filterByCategory("Medicine"));
+            assertEquals(List.of(item), manager.searchItems("aspirin"));
+            assertTrue(InventoryManager.matches(item, "aspirin", "medicine"));
+            assertEquals("pcs", item.getUnit());
+        } finally {
+            Locale.setDefault(saved);
+        }
+    }
+
+    private static LocalDate day(SplittableRandom random) {
+        return TODAY.plusDays(random.nextInt(-5, 10));
+    }
+
+    private static Item pick(List<Item> items, SplittableRandom random) {
+        return items.get(random.nextInt(items.size()));
+    }
+}
@@ -0,0 +1,203 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** Round trips through InventoryStore: journal replay, snapshots and compaction. */
+class InventoryStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 10);
+
+    @TempDir
+    Path dir;
+
+    private InventoryManager reload() throws IOException {
+        InventoryManager manager = new InventoryManager();
+        try (InventoryStore store = new InventoryStore(dir)) {
+            store.load(manager);
+        }
+        return manager;
+    }
+
+    // writeUTF used to throw past 64 KB, after the manager had already added the item
+    @Test
+    void journalsLongStrings() throws IOException {
+        String name = "x".repeat(100_000) + "é";
+        InventoryManager manager = new InventoryManager();
+        try (InventoryStore store = new InventoryStore(dir)) {
+            store.load(manager);
+            manager.addItem(new Item(name, "Food", 1, "pcs", DAY));
+            manager.addItem(new Item("Milk", "Food", 2, "liter", DAY));
+        }
+        List<Item> items = reload().getAllItems();
+        assertEquals(2, items.size());
+        assertEquals(name, items.get(0).getName());
+        assertEquals("Milk", items.get(1).getName());
+    }
+
+    @Test
+    void replaysEditsAndRemovalsAcrossCompaction() throws IOException {
+        InventoryManager manager = new InventoryManager();
+        try (InventoryStore store = new InventoryStore(dir)) {
+            store.load(manager);
+            for (int i = 0; i < 10; i++)
+                manager.addItem(new Item("i" + i, "Food", i, "pcs", DAY));
+            store.compact();
+            List<Item> all = manager.getAllItems();
+            manager.removeItem(all.get(0));
+            manager.updateItem(all.get(1), "renamed", "Other", 7, "kg", DAY.plusDays(1));
+        }
+        List<Item> items = reload().getAllItems();
+        assertEquals(9, items.size());
+        assertEquals("renamed", items.get(0).getName());
+        assertEquals(7, items.get(0).getQuantity());
+        assertEquals("i9", items.get(8).getName());
+    }
+
+    // The snapshot is taken in the background, so it may already hold edits that
+    // the new journal replays again on top of it
+    @Test
+    void editsDuringCompactionReplayOnTopOfTheSnapshot() throws IOException {
+        InventoryManager manager = new InventoryManager();
+        try (InventoryStore store = new InventoryStore(dir)) {
+            store.load(manager);
+            List<Item> batch = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++)
+                batch.add(new Item("i" + i, "Food", i, "pcs", DAY));
+            manager.addAll(batch);
+            store.compact();
+            for (int i = 0; i < 20_000; i += 2) {
+                manager.removeItem(batch.get(i));
+                manager.updateItem(batch.get(i + 1), "u" + i, "Other", i, "kg", DAY.plusDays(1));
+                manager.addItem(new Item("a" + i, "Food", i, "g", DAY));
+            }
+        }
+        assertEquals(names(manager.getAllItems()), names(reload().getAllItems()));
+    }
+
+    private static List<String> names(List<Item> items) {
+        List<String> names = new ArrayList<>();
+        for (Item item : items)
+            names.add(item.getId() + " " + item.getName() + " " + item.getQuantity() + " " + item.getExpiryDay());
+        return names;
+    }
+
+    // nextId used to be max(live id) + 1, so a removed highest id came back after a restart
+    @Test
+    void removedIdsAreNotReusedAfterRestart() throws IOException {
+        InventoryManager manager = new InventoryManager();
+        long removed;
+        try (InventoryStore store = new InventoryStore(dir)) {
+            store.load(manager);
+            for (int i = 0; i < 3; i++)
+                manager.addItem(new Item("i" + i, "Food", 1, "pcs", DAY));
+            Item last = manager.getAllItems().get(2);
+            removed = last.getId();
+            manager.removeItem(last);
+        }
+        InventoryManager fromJournal = reload();
+        fromJournal.addItem(new Item("next", "Food", 1, "pcs", DAY));
+        assertTrue(fromJournal.getAllItems().get(2).getId() > removed);
+
+        // Again with the removal only in a snapshot
+        try (InventoryStore store = new InventoryStore(dir)) {
+            InventoryManager compacted = new InventoryManager();
+            store.load(compacted);
+            Item newest = new Item("newest", "Food", 1, "pcs", DAY);
+            compacted.addItem(newest);
+            removed = newest.getId();
+            compacted.removeItem(newest);
+            store.compact();
+        }
+        InventoryManager fromSnapshot = reload();
+        fromSnapshot.addItem(new Item("later", "Food", 1, "pcs", DAY));
+        assertTrue(fromSnapshot.getAllItems().get(2).getId() > removed);
+    }
+
+    @Test
+    void secondStoreOnOneDirectoryFailsFast() throws IOException {
+        try (InventoryStore first = new InventoryStore(dir)) {
+            first.load(new InventoryManager());
+            InventoryStore second = new InventoryStore(dir);
+            IOException e = assertThrows(IOException.class, () -> second.load(new InventoryManager()));
+            assertTrue(e.getMessage().contains("in use"), e.getMessage());
+            second.close();
+        }
+        reload(); // the lock is released on close
+    }
+
+    // Version 2 (no nextId in the header) was written by earlier builds
+    @Test
+    void readsVersion2Snapshots() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CRC32 crc = new CRC32();
+        DataOutputStream out = new DataOutputStream(new CheckedOutputStream(bytes, crc));
+        out.writeInt(SnapshotFormat.MAGIC);
+        out.writeInt(2);
+        out.writeInt(2);
+        for (String[] dictionary : new String[][] { { "Milk", "Rice" }, { "FOOD" }, { "liter", "kg" } }) {
+            out.writeInt(dictionary.length);
+            for (String value : dictionary) {
+                out.writeInt(value.length());
+                out.writeBytes(value);
+            }
+        }
+        out.writeLong(4);
+        out.writeLong(9);
+        out.writeInt(0); out.writeInt(1);   // names
+        out.writeInt(0); out.writeInt(0);   // categories
+        out.writeInt(0); out.writeInt(1);   // units
+        out.writeDouble(1.5); out.writeDouble(2);
+        out.writeInt((int) DAY.toEpochDay()); out.writeInt((int) DAY.plusDays(1).toEpochDay());
+        out.flush();
+        new DataOutputStream(bytes).writeInt((int) crc.getValue());
+        Path file = dir.resolve("v2.bin");
+        Files.write(file, bytes.toByteArray());
+
+        SnapshotFormat.Contents contents = SnapshotFormat.read(file);
+        assertEquals(10, contents.getNextId());
+        List<Item> items = contents.getItems();
+        assertEquals("Rice", items.get(1).getName());
+        assertEquals(9, items.get(1).getId());
+        assertEquals(Dictionary.CATEGORIES.code("Food"), items.get(0).getCategoryCode());
+        assertEquals("kg", items.get(1).getUnit());
+        assertEquals(1.5, items.get(0).getQuantity());
+        assertEquals(DAY.plusDays(1), items.get(1).getExpiryDate());
+
+        byte[] v1 = bytes.toByteArray();
+        v1[7] = 1;
+        Files.write(file, v1);
+        IOException e = assertThrows(IOException.class, () -> SnapshotFormat.read(file));
+        assertTrue(e.getMessage().contains("to-csv"), e.getMessage());
+    }
+
+    // A failed flush used to be kept until close(), while appends piled up in memory
+    @Test
+    void appendsFailAfterAFailedFlush() throws IOException {
+        Path full = Paths.get("/dev/full"); // every write fails with "no space left"
+        assumeTrue(Files.isWritable(full));
+        Journal journal = Journal.open(full);
+        Item item = new Item("Milk", "Food", 1, "liter", DAY);
+        journal.append(Journal.ADD, item);
+        assertThrows(IOException.class, journal::flush);
+        assertThrows(IllegalStateException.class, () -> journal.append(Journal.UPDATE, item));
+        assertThrows(IOException.class, journal::close);
+    }
+}
@@ -0,0 +1,113 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static inventory.PinnedClock.TODAY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * mergeAll in each Duplicates mode against a naive model keyed like the
+ * duplicate index (name ignoring case and spaces, category, unit, expiry),
+ * with edits, removals and consumes between batches so the index must follow.
+ */
+@ExtendWith(PinnedClock.class)
+class MergeAllTest {
+
+    private static final String[] NAMES = { "Milk", "milk ", "Rice", "Tea", "Eggs", "BREAD" };
+    private static final String[] CATEGORIES = { "Food", "Other" };
+    private static final String[] UNITS = { "pcs", "kg", "g" };
+
+
+
+    private static String key(Item item) {
+        return item.getName().trim().toLowerCase() + "|" + item.getCategory() + "|" + item.getUnit()
+                + "|" + item.getExpiryDay();
+    }
+
+    @Test
+    void mergeMatchesModel() {
+        InventoryManager manager = new InventoryManager();
+        SplittableRandom random = new SplittableRandom(3);
+
+        for (int round = 0; round < 1500; round++) {
+            List<Item> batch = new ArrayList<>();
+            for (int i = random.nextInt(1, 30); i > 0; i--)
+                batch.add(new Item(pick(NAMES, random), pick(CATEGORIES, random), 1 + random.nextInt(5),
+                        pick(UNITS, random), TODAY.plusDays(random.nextInt(-3, 6))));
+            InventoryManager.Duplicates mode = InventoryManager.Duplicates.values()[random.nextInt(3)];
+
+            Map<String, Double> quantities = new HashMap<>();
+            Set<String> seen = new HashSet<>();
+            for (Item item : manager.getAllItems()) {
+                quantities.merge(key(item), item.getQuantity(), Double::sum);
+                seen.add(key(item));
+            }
+            int inserted = 0, merged = 0, skipped = 0;
+            for (Item item : batch) {
+                String k = key(item);
+                boolean duplicate = seen.contains(k);
+                if (mode == InventoryManager.Duplicates.ADD || !duplicate) {
+                    inserted++;
+                    seen.add(k);
+                } else if (mode == InventoryManager.Duplicates.MERGE) {
+                    merged++;
+                } else {
+                    skipped++;
+                }
+                if (mode != InventoryManager.Duplicates.SKIP || !duplicate)
+                    quantities.merge(k, item.getQuantity(), Double::sum);
+            }
+
+            InventoryManager.MergeResult result = manager.mergeAll(batch, mode);
+            assertEquals(inserted, result.getInserted(), mode + " inserted");
+            assertEquals(merged, result.getMerged(), mode + " merged");
+            assertEquals(skipped, result.getSkipped(), mode + " skipped");
+
+            Map<String, Double> actual = new HashMap<>();
+            for (Item item : manager.getAllItems())
+                actual.merge(key(item), item.getQuantity(), Double::sum);
+            for (String k : quantities.keySet())
+                assertEquals(quantities.get(k), actual.getOrDefault(k, 0.0), 1e-6, k);
+
+            disturb(manager, random);
+            if (round % 500 == 0)
+                manager.purgeExpired();
+        }
+    }
+
+    private static void disturb(InventoryManager manager, SplittableRandom random) {
+        List<Item> all = new ArrayList<>(manager.getAllItems());
+        for (int e = 0; e < 5 && !all.isEmpty(); e++) {
+            Item item = all.get(random.nextInt(all.size()));
+            switch (random.nextInt(3)) {
+                case 0:
+                    manager.updateItem(item, pick(NAMES, random), pick(CATEGORIES, random), item.getQuantity(),
+                            pick(UNITS, random), TODAY.plusDays(random.nextInt(-3, 6)));
+                    break;
+                case 1:
+                    manager.removeItem(item);
+                    all.remove(item);
+                    break;
+                default:
+                    try {
+                        manager.consume(item.getName(), 1, item.getUnit());
+                    } catch (IllegalArgumentException refused) {
+                    }
+            }
+        }
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,32 @@
+package inventory;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Test fixture for everything that reads the shared InventoryClock or the
+ * warning window: pins the clock to TODAY and the window to its default
+ * before each test, and puts the system clock back afterwards.
+ *
+ *   @ExtendWith(PinnedClock.class)
+ */
+class PinnedClock implements BeforeEachCallback, AfterEachCallback {
+
+    static final LocalDate TODAY = LocalDate.of(2030, 1, 10);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        InventoryClock.setShared(InventoryClock.fixed(TODAY));
+        ExpirySettings.setWarningDays(ExpirySettings.DEFAULT_WARNING_DAYS);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        InventoryClock.setShared(new InventoryClock(Clock.systemDefaultZone()));
+        ExpirySettings.setWarningDays(ExpirySettings.DEFAULT_WARNING_DAYS);
+    }
+}
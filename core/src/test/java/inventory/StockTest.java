@@ -0,0 +1,178 @@
+package inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static inventory.PinnedClock.TODAY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Lots and totals per product against sums over getAllItems(), with random
+ * adds, removals, edits (renames and unit changes included) and consumes.
+ * Product names differ only in case and spacing on purpose.
+ */
+@ExtendWith(PinnedClock.class)
+class StockTest {
+
+    private static final String[] NAMES = { "Rice", "rice ", "RICE", "Milk", "Soap", "Eggs" };
+    private static final String[] UNITS = { "kg", "g", "liter", "ml", "pcs", "dozen", "lb", "jar" };
+
+
+
+    @Test
+    void consumeDrawsSoonestExpiringFirst() {
+        InventoryManager manager = new InventoryManager();
+        Item late = new Item("Rice", "Food", 2, "kg", TODAY.plusDays(30));
+        Item early = new Item("rice", "Food", 500, "g", TODAY.plusDays(5));
+        manager.addItem(late);
+        manager.addItem(early);
+
+        assertEquals(List.of(early, late), manager.getLots("RICE"));
+        assertEquals(List.of(early, late), manager.consume("Rice ", 1, "kg"));
+        assertEquals(List.of(late), manager.getLots("rice"));
+        assertEquals(1.5, manager.getTotals("rice").get("kg"), 1e-9);
+    }
+
+    // The remainder used to be rounded only after the used-up check, leaving a 0.0 lot behind
+    @Test
+    void consumeRemovesLotsThatWouldRoundToNothing() {
+        InventoryManager manager = new InventoryManager();
+        Item rice = new Item("Rice", "Food", 1, "kg", TODAY.plusDays(5));
+        manager.addItem(rice);
+        manager.consume("Rice", 0.9999997, "kg");
+        assertTrue(manager.getLots("Rice").isEmpty());
+        assertEquals(0, manager.size());
+    }
+
+    @Test
+    void refusedConsumeChangesNothing() {
+        InventoryManager manager = new InventoryManager();
+        manager.addItem(new Item("Milk", "Food", 1, "liter", TODAY.plusDays(3)));
+        Map<String, Double> before = manager.getTotals("milk");
+        try {
+            manager.consume("Milk", 2, "liter");
+            fail("consumed more than in stock");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(before, manager.getTotals("milk"));
+        assertEquals(1, manager.size());
+    }
+
+    @Test
+    void rejectsQuantitiesThatWouldCorruptTotals() {
+        InventoryManager manager = new InventoryManager();
+        Item rice = new Item("Rice", "Food", 2, "kg", TODAY.plusDays(5));
+        manager.addItem(rice);
+        for (double bad : new double[] { Double.NaN, Double.POSITIVE_INFINITY, -1, 2 * Item.MAX_QUANTITY }) {
+            assertThrows(IllegalArgumentException.class, () -> new Item("Rice", "Food", bad, "kg", TODAY));
+            assertThrows(IllegalArgumentException.class,
+                    () -> manager.updateItem(rice, "Oats", "Food", bad, "g", TODAY));
+            assertThrows(IllegalArgumentException.class, () -> manager.consume("rice", bad, "kg"));
+        }
+        assertEquals("Rice", rice.getName()); // nothing of the edit applied
+        assertEquals(Map.of("kg", 2.0), manager.getTotals("rice"));
+
+        Item more = new Item("Rice", "Food", Item.MAX_QUANTITY, "kg", TODAY.plusDays(5));
+        InventoryManager.MergeResult result = manager.mergeAll(List.of(more), InventoryManager.Duplicates.MERGE);
+        assertEquals(1, result.getInserted()); // the sum would be out of range
+        assertEquals(2, manager.getLots("rice").size());
+        assertEquals(2 + Item.MAX_QUANTITY, manager.getTotals("rice").get("kg"));
+    }
+
+    @Test
+    void matchesSumsOverItems() {
+        InventoryManager manager = new InventoryManager();
+        SplittableRandom random = new SplittableRandom(11);
+        List<Item> held = new ArrayList<>();
+
+        for (int step = 0; step < 30_000; step++) {
+            int op = random.nextInt(100);
+            if (op < 35) {
+                Item item = new Item(pick(NAMES, random), "Food", 1 + random.nextInt(2000) / 4.0,
+                        pick(UNITS, random), TODAY.plusDays(random.nextInt(-3, 40)));
+                manager.addItem(item);
+                held.add(item);
+            } else if (op < 50 && !held.isEmpty()) {
+                manager.removeItem(held.get(random.nextInt(held.size())));
+            } else if (op < 65 && !held.isEmpty()) {
+                Item item = held.get(random.nextInt(held.size()));
+                manager.updateItem(item, pick(NAMES, random), "Food", 1 + random.nextInt(100),
+                        pick(UNITS, random), TODAY.plusDays(random.nextInt(-3, 40)));
+            } else {
+                consumeAndCheck(manager, pick(NAMES, random), 1 + random.nextInt(3000) / 7.0, pick(UNITS, random));
+            }
+            if (step % 500 == 0)
+                verify(manager);
+            if (held.size() > 3000)
+                held.subList(0, 1000).clear();
+        }
+        verify(manager);
+    }
+
+    private static void consumeAndCheck(InventoryManager manager, String product, double amount, String unitName) {
+        Map<String, Double> before = manager.getTotals(product);
+        List<Item> lotsBefore = manager.getLots(product);
+        List<Item> drawn;
+        try {
+            drawn = manager.consume(product, amount, unitName);
+        } catch (IllegalArgumentException e) {
+            assertEquals(before, manager.getTotals(product), "partial consume");
+            return;
+        }
+        // drawn must be a prefix of the lots in the same dimension, in expiry order
+        int unit = Dictionary.UNITS.find(unitName);
+        List<Item> same = new ArrayList<>();
+        for (Item lot : lotsBefore) {
+            if (Units.base(lot.getUnitCode()) == Units.base(unit))
+                same.add(lot);
+        }
+        assertEquals(same.subList(0, drawn.size()), drawn);
+
+        String base = Dictionary.UNITS.value(Units.base(unit));
+        double expected = before.get(base) - amount * Units.factor(unit);
+        double actual = manager.getTotals(product).getOrDefault(base, 0.0);
+        assertEquals(expected, actual, 1e-5 * Math.max(1, Math.abs(expected)));
+    }
+
+    private static void verify(InventoryManager manager) {
+        Map<String, Map<String, Double>> totals = new HashMap<>();
+        Map<String, List<Item>> lots = new HashMap<>();
+        for (Item item : manager.getAllItems()) {
+            String product = item.getName().trim().toLowerCase();
+            String base = Dictionary.UNITS.value(Units.base(item.getUnitCode()));
+            totals.computeIfAbsent(product, k -> new LinkedHashMap<>())
+                    .merge(base, item.getQuantity() * Units.factor(item.getUnitCode()), Double::sum);
+            lots.computeIfAbsent(product, k -> new ArrayList<>()).add(item);
+        }
+        for (String product : new String[] { "rice", "milk", "soap", "eggs" }) {
+            Map<String, Double> actual = manager.getTotals(product);
+            Map<String, Double> expected = totals.getOrDefault(product, Map.of());
+            assertEquals(expected.keySet(), actual.keySet(), product);
+            for (String unit : expected.keySet())
+                assertEquals(expected.get(unit), actual.get(unit), 1e-6 * Math.max(1, expected.get(unit)), product);
+
+            List<Item> actualLots = manager.getLots(product);
+            List<Item> expectedLots = lots.getOrDefault(product, List.of());
+            assertEquals(new HashSet<>(expectedLots), new HashSet<>(actualLots), product);
+            assertEquals(expectedLots.size(), actualLots.size(), product);
+            for (int i = 1; i < actualLots.size(); i++)
+                assertTrue(actualLots.get(i - 1).getExpiryDay() <= actualLots.get(i).getExpiryDay(), "lot order");
+        }
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,421 @@
+package inventory.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import inventory.InventoryManager;
+import inventory.InventoryStore;
+import inventory.Item;
+import inventory.LatencyTimer;
+import inventory.Metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless HTTP/JSON API over an InventoryManager, for scripts and other
+ * devices. Keeps its data in ~/.home-inventory-server unless --data says
+ * otherwise; pointing it at the app's directory works, but not while the app
+ * runs (the store's lock makes the second one fail at startup).
+ *
+ *   GET    /api/items?q=&category=&offset=&limit=   search / filter
+ *   POST   /api/items                              add
+ *   GET    /api/items/{id}
+ *   PUT    /api/items/{id}                         edit (all fields)
+ *   DELETE /api/items/{id}
+ *   GET    /api/expiring?days=                     default: the warning window
+ *   GET    /api/expired
+ *   GET    /api/stats                              dashboard counters
+ *
+ * Item bodies look like {"name":"Milk","category":"Food","quantity":2,
+ * "unit":"liter","expiry":"2026-03-01"}. List responses are streamed with
+ * chunked encoding, one item at a time, so a million-item result never
+ * becomes one big string.
+ *
+ * Requests run on virtual threads when the JVM has them (21+), otherwise on
+ * a fixed pool of platform threads.
+ */
+public class InventoryServer {
+
+    private static final int POOL_THREADS = 64;
+    private static final int COPY_CHUNK = 4096; // items copied per read-lock hold while streaming
+
+    static {
+        // Headers and body go out as separate writes; without this, Nagle's
+        // algorithm and delayed ACKs add ~40 ms to every small response.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null)
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final InventoryManager manager;
+    private final HttpServer http;
+    private final ExecutorService executor;
+
+    public InventoryServer(InventoryManager manager, InetSocketAddress address) throws IOException {
+        this.manager = manager;
+        this.executor = requestExecutor();
+        this.http = HttpServer.create(address, 1024);
+        http.createContext("/api/items", timed("http.items", this::items));
+        http.createContext("/api/expiring", timed("http.expiring", get(this::expiring)));
+        http.createContext("/api/expired", timed("http.expired", get(ex -> sendItems(ex, manager.getExpiredItems()))));
+        http.createContext("/api/stats", timed("http.stats", get(this::stats)));
+        http.setExecutor(executor);
+    }
+
+    public void start() {
+        http.start();
+    }
+
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    public void stop() {
+        http.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() exists from Java 21; this builds for 17.
+    private static ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(POOL_THREADS, r -> {
+                Thread t = new Thread(r, "inventory-http");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // ===== /api/items =====
+    private void items(HttpExchange ex) throws IOException {
+        String rest = ex.getRequestURI().getPath().substring("/api/items".length());
+        try {
+            // Read the body before any early response: HttpServer drops the
+            // connection if a request body is left unread.
+            String body = readBody(ex);
+            if (!rest.isEmpty() && !rest.startsWith("/")) { // contexts match by prefix: /api/itemsX
+                notFound(ex);
+                return;
+            }
+            if (rest.isEmpty() || rest.equals("/")) {
+                switch (ex.getRequestMethod()) {
+                    case "GET": list(ex); break;
+                    case "POST": add(ex, body); break;
+                    default: sendError(ex, 405, "Use GET or POST");
+                }
+                return;
+            }
+            long id = parseId(rest.substring(1));
+            Item item = manager.getItem(id);
+            if (item == null) {
+                sendError(ex, 404, "No item with id " + id);
+                return;
+            }
+            switch (ex.getRequestMethod()) {
+                case "GET": sendItem(ex, 200, item); break;
+                case "PUT": update(ex, item, body); break;
+                case "DELETE":
+                    if (manager.removeItem(item))
+                        send(ex, 204, null);
+                    else
+                        sendError(ex, 404, "No item with id " + id);
+                    break;
+                default: sendError(ex, 405, "Use GET, PUT or DELETE");
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(ex, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            internalError(ex, e);
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void list(HttpExchange ex) throws IOException {
+        Map<String, String> params = query(ex);
+        List<Item> result = manager.filter(params.getOrDefault("q", ""), params.get("category"));
+        int offset = intParam(params, "offset", 0);
+        int limit = intParam(params, "limit", Integer.MAX_VALUE);
+        int from = Math.min(offset, result.size());
+        int to = (int) Math.min((long) from + limit, result.size());
+        sendItems(ex, result.subList(from, to));
+    }
+
+    private void add(HttpExchange ex, String json) throws IOException {
+        Map<String, Object> body = Json.parseObject(json);
+        Item item = new Item(requireString(body, "name"), requireString(body, "category"),
+                requireQuantity(body), requireString(body, "unit"), requireDate(body));
+        manager.addItem(item);
+        ex.getResponseHeaders().set("Location", "/api/items/" + item.getId());
+        sendItem(ex, 201, item);
+    }
+
+    private void update(HttpExchange ex, Item item, String json) throws IOException {
+        Map<String, Object> body = Json.parseObject(json);
+        boolean updated = manager.updateItem(item, requireString(body, "name"), requireString(body, "category"),
+                requireQuantity(body), requireString(body, "unit"), requireDate(body));
+        if (updated)
+            sendItem(ex, 200, item);
+        else
+            sendError(ex, 404, "No item with id " + item.getId());
+    }
+
+    // ===== Expiry & stats =====
+    private void expiring(HttpExchange ex) throws IOException {
+        Map<String, String> params = query(ex);
+        int days = intParam(params, "days", manager.getWarningDays());
+        sendItems(ex, manager.getItemsExpiringWithin(days));
+    }
+
+    private void stats(HttpExchange ex) throws IOException {
+        InventoryManager.Stats stats = manager.getStats();
+        StringWriter out = new StringWriter();
+        out.write("{\"total\":" + stats.getTotal()
+                + ",\"expired\":" + stats.getExpired()
+                + ",\"expiringSoon\":" + stats.getExpiringSoon()
+                + ",\"safe\":" + stats.getSafe()
+                + ",\"warningDays\":" + manager.getWarningDays()
+                + ",\"byCategory\":{");
+        writeEntries(out, stats.getByCategory());
+        out.write("},\"quantityByUnit\":{");
+        writeEntries(out, stats.getQuantityByUnit());
+        out.write("}}");
+        send(ex, 200, out.toString());
+    }
+
+    private static void writeEntries(Writer out, Map<String, ? extends Number> map) throws IOException {
+        boolean first = true;
+        for (Map.Entry<String, ? extends Number> e : map.entrySet()) {
+            if (!first)
+                out.write(',');
+            first = false;
+            Json.writeString(out, e.getKey());
+            out.write(':');
+            Json.writeNumber(out, e.getValue().doubleValue());
+        }
+    }
+
+    // ===== Request parsing =====
+    private static String readBody(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange ex) {
+        Map<String, String> params = new HashMap<>();
+        String raw = ex.getRequestURI().getRawQuery();
+        if (raw == null)
+            return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, String> params, String name, int fallback) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty())
+            return fallback;
+        try {
+            int n = Integer.parseInt(value);
+            if (n < 0)
+                throw new IllegalArgumentException(name + " must not be negative");
+            return n;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a whole number");
+        }
+    }
+
+    private static long parseId(String text) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad item id: " + text);
+        }
+    }
+
+    private static String requireString(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (!(value instanceof String) || ((String) value).trim().isEmpty())
+            throw new IllegalArgumentException(field + " is required");
+        return ((String) value).trim();
+    }
+
+    private static double requireQuantity(Map<String, Object> body) {
+        Object value = body.get("quantity");
+        if (!(value instanceof Double))
+            throw new IllegalArgumentException("quantity must be a number");
+        return (Double) value;
+    }
+
+    private static LocalDate requireDate(Map<String, Object> body) {
+        try {
+            return LocalDate.parse(requireString(body, "expiry"));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("expiry must be yyyy-mm-dd");
+        }
+    }
+
+    // ===== Responses =====
+    // Streams a JSON array with chunked encoding. Items are edited in place on other
+    // threads, so what is written are copies, taken a chunk at a time.
+    private void sendItems(HttpExchange ex, List<Item> items) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(200, 0);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8),
+                1 << 16)) {
+            out.write('[');
+            for (int from = 0; from < items.size(); from += COPY_CHUNK) {
+                List<Item> chunk = manager.copies(items.subList(from, Math.min(from + COPY_CHUNK, items.size())));
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (from + i > 0)
+                        out.write(',');
+                    Json.writeItem(out, chunk.get(i));
+                }
+            }
+            out.write(']');
+        }
+    }
+
+    private void sendItem(HttpExchange ex, int status, Item item) throws IOException {
+        StringWriter out = new StringWriter();
+        Json.writeItem(out, manager.copies(List.of(item)).get(0));
+        send(ex, status, out.toString());
+    }
+
+    private static void notFound(HttpExchange ex) throws IOException {
+        sendError(ex, 404, "No such endpoint: " + ex.getRequestURI().getPath());
+    }
+
+    private static void sendError(HttpExchange ex, int status, String message) throws IOException {
+        StringWriter out = new StringWriter();
+        out.write("{\"error\":");
+        Json.writeString(out, message == null ? "Bad request" : message);
+        out.write('}');
+        send(ex, status, out.toString());
+    }
+
+    private static void send(HttpExchange ex, int status, String json) throws IOException {
+        if (json == null) {
+            ex.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        ex.getResponseBody().write(bytes);
+    }
+
+    // GET-only handler with the same error handling as /api/items
+    private static HttpHandler get(HttpHandler handler) {
+        return ex -> {
+            try {
+                String context = ex.getHttpContext().getPath();
+                String path = ex.getRequestURI().getPath();
+                if (!path.equals(context) && !path.equals(context + "/")) // contexts match by prefix
+                    notFound(ex);
+                else if (!ex.getRequestMethod().equals("GET"))
+                    sendError(ex, 405, "Use GET");
+                else
+                    handler.handle(ex);
+            } catch (IllegalArgumentException e) {
+                sendError(ex, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                internalError(ex, e);
+            } finally {
+                ex.close();
+            }
+        };
+    }
+
+    // Per-endpoint request latency, including streaming the response (see Metrics)
+    private static HttpHandler timed(String name, HttpHandler handler) {
+        LatencyTimer timer = Metrics.timer(name);
+        return ex -> {
+            long start = System.nanoTime();
+            try {
+                handler.handle(ex);
+            } finally {
+                timer.record(start);
+            }
+        };
+    }
+
+    private static void internalError(HttpExchange ex, RuntimeException e) throws IOException {
+        System.err.println(ex.getRequestMethod() + " " + ex.getRequestURI() + " failed: " + e);
+        e.printStackTrace();
+        if (ex.getResponseCode() == -1) // headers not sent yet
+            sendError(ex, 500, "Internal error");
+    }
+
+    public static Path defaultDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".home-inventory-server");
+    }
+
+    // ===== Main =====
+    // Usage: InventoryServer [--port 8080] [--data <dir>] [--metrics <file.csv>]
+    // The default data directory is the server's own, not the app's.
+    // With --metrics, timers are appended to the CSV and printed once a minute.
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        Path data = defaultDirectory();
+        Path metrics = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--port"))
+                port = Integer.parseInt(args[i + 1]);
+            else if (args[i].equals("--data"))
+                data = Paths.get(args[i + 1]);
+            else if (args[i].equals("--metrics"))
+                metrics = Paths.get(args[i + 1]);
+            else
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+        }
+
+        InventoryManager manager = new InventoryManager();
+        InventoryStore store = new InventoryStore(data);
+        store.load(manager);
+        InventoryServer server = new InventoryServer(manager, new InetSocketAddress(port));
+        if (metrics != null)
+            Metrics.startReporting(metrics, 60, true);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            Metrics.stopReporting();
+            try {
+                store.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close the store: " + e.getMessage());
+            }
+        }, "inventory-shutdown"));
+        server.start();
+        System.out.println("Serving " + manager.size() + " items from " + data + " on port " + server.getPort()
+                + " (loaded in " + store.getRecoveryMillis() + " ms)");
+    }
+}
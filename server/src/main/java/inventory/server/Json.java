@@ -0,0 +1,199 @@
+package inventory.server;
+
+import inventory.Item;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Just enough JSON for the API: items and small objects are written straight
+ * to a Writer (no intermediate strings), and request bodies are flat objects
+ * of strings, numbers, booleans and nulls.
+ */
+final class Json {
+
+    // Indexed by ExpiryStatus ordinal
+    private static final String[] STATUS = { "ok", "expiring", "expired" };
+
+    private Json() {
+    }
+
+    // ===== Writing =====
+    static void writeItem(Writer out, Item item) throws IOException {
+        out.write("{\"id\":");
+        out.write(Long.toString(item.getId()));
+        out.write(",\"name\":");
+        writeString(out, item.getName());
+        out.write(",\"category\":");
+        writeString(out, item.getCategory());
+        out.write(",\"quantity\":");
+        writeNumber(out, item.getQuantity());
+        out.write(",\"unit\":");
+        writeString(out, item.getUnit());
+        out.write(",\"expiry\":\"");
+        out.write(item.getExpiryDate().toString());
+        out.write("\",\"status\":\"");
+        out.write(STATUS[item.getStatus().ordinal()]);
+        out.write("\"}");
+    }
+
+    static void writeString(Writer out, String s) throws IOException {
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+
+    static void writeNumber(Writer out, double d) throws IOException {
+        if (d == Math.rint(d) && Math.abs(d) < 1e15)
+            out.write(Long.toString((long) d));
+        else
+            out.write(Double.toString(d));
+    }
+
+    // ===== Parsing (flat objects only) =====
+    static Map<String, Object> parseObject(String text) {
+        Parser p = new Parser(text);
+        Map<String, Object> result = p.object();
+        p.skipSpace();
+        if (p.pos != text.length())
+            throw p.error("Trailing characters");
+        return result;
+    }
+
+    private static class Parser {
+        private final String s;
+        private int pos;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        Map<String, Object> object() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            expect('{');
+            skipSpace();
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipSpace();
+                String key = string();
+                skipSpace();
+                expect(':');
+                skipSpace();
+                map.put(key, value());
+                skipSpace();
+                char c = next();
+                if (c == '}')
+                    return map;
+                if (c != ',')
+                    throw error("Expected ',' or '}'");
+            }
+        }
+
+        private Object value() {
+            char c = peek();
+            if (c == '"')
+                return string();
+            if (s.startsWith("true", pos)) {
+                pos += 4;
+                return Boolean.TRUE;
+            }
+            if (s.startsWith("false", pos)) {
+                pos += 5;
+                return Boolean.FALSE;
+            }
+            if (s.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            int start = pos;
+            while (pos < s.length() && "+-0123456789.eE".indexOf(s.charAt(pos)) >= 0)
+                pos++;
+            if (start == pos)
+                throw error("Expected a string, number, boolean or null");
+            try {
+                return Double.parseDouble(s.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("Bad number");
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"')
+                    return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char e = next();
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > s.length())
+                            throw error("Bad escape");
+                        try {
+                            sb.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("Bad escape");
+                        }
+                        pos += 4;
+                        break;
+                    default: sb.append(e); // \" \\ \/
+                }
+            }
+        }
+
+        void skipSpace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos)))
+                pos++;
+        }
+
+        private char peek() {
+            if (pos >= s.length())
+                throw error("Unexpected end of input");
+            return s.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char c) {
+            if (next() != c)
+                throw error("Expected '" + c + "'");
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at offset " + pos);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package inventory.server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Local load generator for InventoryServer. Each client thread sends a mix
+ * of searches, expiry and dashboard reads and add / edit / remove calls, one
+ * request at a time, and records every latency. Prints requests/second and
+ * latency percentiles, overall and per operation.
+ *
+ * Usage: LoadGenerator [--url http://localhost:8080] [--threads 16] [--seconds 20]
+ *
+ * The adds leave "Load ..." items behind, so point it at a server started
+ * with a throwaway --data directory.
+ */
+public class LoadGenerator {
+
+    // Operation mix, in percent
+    private static final String[] OPS = { "search", "category", "expiring", "stats", "add", "update", "remove" };
+    private static final int[] WEIGHTS = { 50, 15, 10, 10, 8, 5, 2 };
+    private static final String[] WORDS = { "milk", "bread", "rice", "cheese", "tea", "soap", "aspirin", "bulbs" };
+    private static final String[] CATEGORIES = { "Food", "Medicine", "Electronics", "Other" };
+
+    private final String url;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+
+    LoadGenerator(String url) {
+        this.url = url;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://localhost:8080";
+        int threads = 16;
+        int seconds = 20;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--url": url = args[i + 1]; break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                case "--seconds": seconds = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        new LoadGenerator(url).run(threads, seconds);
+    }
+
+    void run(int threads, int seconds) throws InterruptedException {
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        Latencies[] perThread = new Latencies[threads];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Latencies latencies = perThread[t] = new Latencies();
+            SplittableRandom random = new SplittableRandom(t);
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    int op = pick(random);
+                    long start = System.nanoTime();
+                    boolean ok = request(op, random);
+                    latencies.add(op, System.nanoTime() - start, ok);
+                }
+            }, "load-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+        report(perThread, seconds);
+    }
+
+    // ===== One request =====
+    private boolean request(int op, SplittableRandom random) {
+        try {
+            switch (OPS[op]) {
+                case "search":
+                    return get("/api/items?limit=100&q=" + WORDS[random.nextInt(WORDS.length)]);
+                case "category":
+                    return get("/api/items?limit=100&category=" + CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                case "expiring":
+                    return get("/api/expiring");
+                case "stats":
+                    return get("/api/stats");
+                case "add": {
+                    HttpResponse<String> r = send(HttpRequest.newBuilder(URI.create(url + "/api/items"))
+                            .POST(HttpRequest.BodyPublishers.ofString(body(random))));
+                    if (r.statusCode() != 201)
+                        return false;
+                    String location = r.headers().firstValue("Location").orElse("");
+                    createdIds.add(Long.parseLong(location.substring(location.lastIndexOf('/') + 1)));
+                    return true;
+                }
+                case "update": {
+                    Long id = createdIds.peek();
+                    if (id == null)
+                        return get("/api/stats");
+                    int status = send(HttpRequest.newBuilder(URI.create(url + "/api/items/" + id))
+                            .PUT(HttpRequest.BodyPublishers.ofString(body(random)))).statusCode();
+                    return status == 200 || status == 404; // 404: another thread removed it
+                }
+                default: { // remove
+                    Long id = createdIds.poll();
+                    if (id == null)
+                        return get("/api/stats");
+                    return send(HttpRequest.newBuilder(URI.create(url + "/api/items/" + id)).DELETE())
+                            .statusCode() == 204;
+                }
+            }
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean get(String path) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(url + path)).GET()).statusCode() == 200;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String body(SplittableRandom random) {
+        LocalDate expiry = LocalDate.now().plusDays(random.nextInt(-10, 60));
+        return "{\"name\":\"Load " + WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(1_000_000)
+                + "\",\"category\":\"" + CATEGORIES[random.nextInt(CATEGORIES.length)]
+                + "\",\"quantity\":" + (1 + random.nextInt(10))
+                + ",\"unit\":\"pcs\",\"expiry\":\"" + expiry + "\"}";
+    }
+
+    private static int pick(SplittableRandom random) {
+        int r = random.nextInt(100);
+        for (int op = 0; op < WEIGHTS.length; op++) {
+            r -= WEIGHTS[op];
+            if (r < 0)
+                return op;
+        }
+        return 0;
+    }
+
+    // ===== Report =====
+    private void report(Latencies[] perThread, int seconds) {
+        long[][] byOp = new long[OPS.length][];
+        int[] errorsByOp = new int[OPS.length];
+        long[] all = new long[0];
+        int errors = 0;
+        for (int op = 0; op < OPS.length; op++) {
+            long[] merged = new long[0];
+            for (Latencies l : perThread) {
+                merged = concat(merged, Arrays.copyOf(l.nanos[op], l.counts[op]));
+                errorsByOp[op] += l.errors[op];
+            }
+            Arrays.sort(merged);
+            byOp[op] = merged;
+            all = concat(all, merged);
+            errors += errorsByOp[op];
+        }
+        Arrays.sort(all);
+        System.out.printf("%d requests in %d s: %.0f req/s, %d errors%n", all.length, seconds,
+                all.length / (double) seconds, errors);
+        System.out.printf("%-10s %9s %7s %9s %9s %9s %9s%n", "op", "count", "errors", "p50 ms", "p99 ms",
+                "p99.9 ms", "max ms");
+        line("all", all, errors);
+        for (int op = 0; op < OPS.length; op++)
+            line(OPS[op], byOp[op], errorsByOp[op]);
+    }
+
+    private static void line(String name, long[] sorted, int errors) {
+        if (sorted.length == 0)
+            return;
+        System.out.printf("%-10s %9d %7d %9.2f %9.2f %9.2f %9.2f%n", name, sorted.length, errors,
+                percentile(sorted, 50), percentile(sorted, 99), percentile(sorted, 99.9),
+                sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int i = (int) Math.ceil(p / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(i, sorted.length - 1))] / 1e6;
+    }
+
+    private static long[] concat(long[] a, long[] b) {
+        long[] c = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, c, a.length, b.length);
+        return c;
+    }
+
+    // Per-thread latency log, one growable array per operation
+    private static class Latencies {
+        final long[][] nanos = new long[OPS.length][1024];
+        final int[] counts = new int[OPS.length];
+        final int[] errors = new int[OPS.length];
+
+        void add(int op, long value, boolean ok) {
+            if (counts[op] == nanos[op].length)
+                nanos[op] = Arrays.copyOf(nanos[op], counts[op] * 2);
+            nanos[op][counts[op]++] = value;
+            if (!ok)
+                errors[op]++;
+        }
+    }
+}